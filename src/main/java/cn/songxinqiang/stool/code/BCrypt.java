@@ -14,8 +14,11 @@
 
 package cn.songxinqiang.stool.code;
 
-import java.io.UnsupportedEncodingException;
 import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * BCrypt implements OpenBSD-style Blowfish password hashing using
@@ -63,7 +66,7 @@ public class BCrypt {
 
     // BCrypt parameters
     private static final int GENSALT_DEFAULT_LOG2_ROUNDS = 10;
-    private static final int BCRYPT_SALT_LEN = 16;
+    static final int BCRYPT_SALT_LEN = 16;
 
     // Blowfish parameters
     private static final int BLOWFISH_NUM_ROUNDS = 16;
@@ -226,199 +229,114 @@ public class BCrypt {
     private static final int bf_crypt_ciphertext[] = { 0x4f727068, 0x65616e42, 0x65686f6c,
             0x64657253, 0x63727944, 0x6f756274 };
 
-    // Table for Base64 encoding
-    private static final char base64_code[] = { '.', '/', 'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H',
-            'I', 'J', 'K', 'L', 'M', 'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y',
-            'Z', 'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm', 'n', 'o', 'p',
-            'q', 'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z', '0', '1', '2', '3', '4', '5', '6',
-            '7', '8', '9' };
-
-    // Table for Base64 decoding
-    private static final byte index_64[] = { -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
-            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
-            -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, 0, 1, 54, 55, 56, 57, 58, 59, 60, 61, 62,
-            63, -1, -1, -1, -1, -1, -1, -1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17,
-            18, 19, 20, 21, 22, 23, 24, 25, 26, 27, -1, -1, -1, -1, -1, -1, 28, 29, 30, 31, 32, 33,
-            34, 35, 36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47, 48, 49, 50, 51, 52, 53, -1, -1,
-            -1, -1, -1 };
-
-    // Expanded Blowfish key
-    private int P[];
-    private int S[];
+    // Length of the encoded hash with a minor revision, e.g. "$2a$10$" + 53 chars
+    private static final int BCRYPT_HASH_LEN = 60;
 
-    /**
-     * Encode a byte array using bcrypt's slightly-modified base64
-     * encoding scheme. Note that this is *not* compatible with
-     * the standard MIME-base64 encoding.
-     *
-     * @param d
-     *            the byte array to encode
-     * @param len
-     *            the number of bytes to encode
-     * @return base64-encoded string
-     * @exception IllegalArgumentException
-     *                if the length is invalid
-     */
-    private static String encode_base64(byte d[], int len) throws IllegalArgumentException {
-        int off = 0;
-        StringBuffer rs = new StringBuffer();
-        int c1, c2;
-
-        if (len <= 0 || len > d.length) {
-            throw new IllegalArgumentException("Invalid len");
-        }
-
-        while (off < len) {
-            c1 = d[off++] & 0xff;
-            rs.append(base64_code[(c1 >> 2) & 0x3f]);
-            c1 = (c1 & 0x03) << 4;
-            if (off >= len) {
-                rs.append(base64_code[c1 & 0x3f]);
-                break;
-            }
-            c2 = d[off++] & 0xff;
-            c1 |= (c2 >> 4) & 0x0f;
-            rs.append(base64_code[c1 & 0x3f]);
-            c1 = (c2 & 0x0f) << 2;
-            if (off >= len) {
-                rs.append(base64_code[c1 & 0x3f]);
-                break;
-            }
-            c2 = d[off++] & 0xff;
-            c1 |= (c2 >> 6) & 0x03;
-            rs.append(base64_code[c1 & 0x3f]);
-            rs.append(base64_code[c2 & 0x3f]);
-        }
-        return rs.toString();
-    }
+    // Number of bytes of the raw hash that are encoded, the last byte of
+    // the ciphertext is dropped
+    static final int BCRYPT_HASH_BYTES = 23;
 
-    /**
-     * Look up the 3 bits base64-encoded by the specified character,
-     * range-checking againt conversion table
-     * 
-     * @param x
-     *            the base64-encoded value
-     * @return the decoded value of x
-     */
-    private static byte char64(char x) {
-        if ((int) x < 0 || (int) x > index_64.length) {
-            return -1;
-        }
-        return index_64[(int) x];
-    }
+    // Number of base64 characters of the encoded salt and hash
+    private static final int BCRYPT_SALT_CHARS = 22;
+    private static final int BCRYPT_HASH_CHARS = 31;
 
-    /**
-     * Decode a string encoded using bcrypt's base64 scheme to a
-     * byte array. Note that this is *not* compatible with
-     * the standard MIME-base64 encoding.
-     * 
-     * @param s
-     *            the string to decode
-     * @param maxolen
-     *            the maximum number of bytes to decode
-     * @return an array containing the decoded bytes
-     * @throws IllegalArgumentException
-     *             if maxolen is invalid
-     */
-    private static byte[] decode_base64(String s, int maxolen) throws IllegalArgumentException {
-        StringBuffer rs = new StringBuffer();
-        int off = 0, slen = s.length(), olen = 0;
-        byte ret[];
-        byte c1, c2, c3, c4, o;
+    // Only the first 72 bytes of the key reach the Blowfish key schedule,
+    // and 73 chars always encode to at least that many bytes, so longer
+    // passwords need not be encoded at all
+    private static final int BCRYPT_MAX_KEY_LEN = 72;
 
-        if (maxolen <= 0) {
-            throw new IllegalArgumentException("Invalid maxolen");
-        }
+    // Engines reused by the static hashing methods
+    private static final InstancePool<BCrypt> ENGINES = new InstancePool<>(BCrypt::new);
 
-        while (off < slen - 1 && olen < maxolen) {
-            c1 = char64(s.charAt(off++));
-            c2 = char64(s.charAt(off++));
-            if (c1 == -1 || c2 == -1) {
-                break;
-            }
-            o = (byte) (c1 << 2);
-            o |= (c2 & 0x30) >> 4;
-            rs.append((char) o);
-            if (++olen >= maxolen || off >= slen) {
-                break;
-            }
-            c3 = char64(s.charAt(off++));
-            if (c3 == -1) {
-                break;
-            }
-            o = (byte) ((c2 & 0x0f) << 4);
-            o |= (c3 & 0x3c) >> 2;
-            rs.append((char) o);
-            if (++olen >= maxolen || off >= slen) {
-                break;
-            }
-            c4 = char64(s.charAt(off++));
-            o = (byte) ((c3 & 0x03) << 6);
-            o |= c4;
-            rs.append((char) o);
-            ++olen;
-        }
+    // Expanded Blowfish key, reset in place for every hash
+    private final int P[] = new int[P_orig.length];
+    private final int S[] = new int[S_orig.length];
 
-        ret = new byte[olen];
-        for (off = 0; off < olen; off++) {
-            ret[off] = (byte) rs.charAt(off);
-        }
-        return ret;
-    }
+    // Working buffers, so that a reused engine allocates nothing but the
+    // resulting string
+    private final int pwords[] = new int[P_orig.length];
+    private final int swords[] = new int[P_orig.length];
+    private final int cdata[] = new int[bf_crypt_ciphertext.length];
+    private final byte saltb[] = new byte[BCRYPT_SALT_LEN];
+    private final byte hashed[] = new byte[bf_crypt_ciphertext.length * 4];
+    private final byte expected[] = new byte[BCRYPT_HASH_BYTES];
+    private final char encoded[] = new char[BCRYPT_HASH_LEN];
+    private final byte passwordb[] = new byte[(BCRYPT_MAX_KEY_LEN + 1) * 3 + 1];
 
     /**
      * Blowfish encipher a single 64-bit block encoded as
-     * two 32-bit halves
+     * two 32-bit halves. The 16 rounds are unrolled and the block
+     * stays in locals, the result is returned packed into a long
      * 
-     * @param lr
-     *            an array containing the two 32-bit half blocks
-     * @param off
-     *            the position in the array of the blocks
+     * @param P
+     *            the expanded key
+     * @param S
+     *            the S-boxes
+     * @param l
+     *            the left half block
+     * @param r
+     *            the right half block
+     * @return the new left half in the high and the new right half
+     *         in the low 32 bits
      */
-    private final void encipher(int lr[], int off) {
-        int i, n, l = lr[off], r = lr[off + 1];
-
+    private static long encipher(int P[], int S[], int l, int r) {
         l ^= P[0];
-        for (i = 0; i <= BLOWFISH_NUM_ROUNDS - 2;) {
-            // Feistel substitution on left word
-            n = S[(l >> 24) & 0xff];
-            n += S[0x100 | ((l >> 16) & 0xff)];
-            n ^= S[0x200 | ((l >> 8) & 0xff)];
-            n += S[0x300 | (l & 0xff)];
-            r ^= n ^ P[++i];
-
-            // Feistel substitution on right word
-            n = S[(r >> 24) & 0xff];
-            n += S[0x100 | ((r >> 16) & 0xff)];
-            n ^= S[0x200 | ((r >> 8) & 0xff)];
-            n += S[0x300 | (r & 0xff)];
-            l ^= n ^ P[++i];
-        }
-        lr[off] = r ^ P[BLOWFISH_NUM_ROUNDS + 1];
-        lr[off + 1] = l;
+        r ^= (((S[l >>> 24] + S[0x100 | ((l >>> 16) & 0xff)])
+                ^ S[0x200 | ((l >>> 8) & 0xff)]) + S[0x300 | (l & 0xff)]) ^ P[1];
+        l ^= (((S[r >>> 24] + S[0x100 | ((r >>> 16) & 0xff)])
+                ^ S[0x200 | ((r >>> 8) & 0xff)]) + S[0x300 | (r & 0xff)]) ^ P[2];
+        r ^= (((S[l >>> 24] + S[0x100 | ((l >>> 16) & 0xff)])
+                ^ S[0x200 | ((l >>> 8) & 0xff)]) + S[0x300 | (l & 0xff)]) ^ P[3];
+        l ^= (((S[r >>> 24] + S[0x100 | ((r >>> 16) & 0xff)])
+                ^ S[0x200 | ((r >>> 8) & 0xff)]) + S[0x300 | (r & 0xff)]) ^ P[4];
+        r ^= (((S[l >>> 24] + S[0x100 | ((l >>> 16) & 0xff)])
+                ^ S[0x200 | ((l >>> 8) & 0xff)]) + S[0x300 | (l & 0xff)]) ^ P[5];
+        l ^= (((S[r >>> 24] + S[0x100 | ((r >>> 16) & 0xff)])
+                ^ S[0x200 | ((r >>> 8) & 0xff)]) + S[0x300 | (r & 0xff)]) ^ P[6];
+        r ^= (((S[l >>> 24] + S[0x100 | ((l >>> 16) & 0xff)])
+                ^ S[0x200 | ((l >>> 8) & 0xff)]) + S[0x300 | (l & 0xff)]) ^ P[7];
+        l ^= (((S[r >>> 24] + S[0x100 | ((r >>> 16) & 0xff)])
+                ^ S[0x200 | ((r >>> 8) & 0xff)]) + S[0x300 | (r & 0xff)]) ^ P[8];
+        r ^= (((S[l >>> 24] + S[0x100 | ((l >>> 16) & 0xff)])
+                ^ S[0x200 | ((l >>> 8) & 0xff)]) + S[0x300 | (l & 0xff)]) ^ P[9];
+        l ^= (((S[r >>> 24] + S[0x100 | ((r >>> 16) & 0xff)])
+                ^ S[0x200 | ((r >>> 8) & 0xff)]) + S[0x300 | (r & 0xff)]) ^ P[10];
+        r ^= (((S[l >>> 24] + S[0x100 | ((l >>> 16) & 0xff)])
+                ^ S[0x200 | ((l >>> 8) & 0xff)]) + S[0x300 | (l & 0xff)]) ^ P[11];
+        l ^= (((S[r >>> 24] + S[0x100 | ((r >>> 16) & 0xff)])
+                ^ S[0x200 | ((r >>> 8) & 0xff)]) + S[0x300 | (r & 0xff)]) ^ P[12];
+        r ^= (((S[l >>> 24] + S[0x100 | ((l >>> 16) & 0xff)])
+                ^ S[0x200 | ((l >>> 8) & 0xff)]) + S[0x300 | (l & 0xff)]) ^ P[13];
+        l ^= (((S[r >>> 24] + S[0x100 | ((r >>> 16) & 0xff)])
+                ^ S[0x200 | ((r >>> 8) & 0xff)]) + S[0x300 | (r & 0xff)]) ^ P[14];
+        r ^= (((S[l >>> 24] + S[0x100 | ((l >>> 16) & 0xff)])
+                ^ S[0x200 | ((l >>> 8) & 0xff)]) + S[0x300 | (l & 0xff)]) ^ P[15];
+        l ^= (((S[r >>> 24] + S[0x100 | ((r >>> 16) & 0xff)])
+                ^ S[0x200 | ((r >>> 8) & 0xff)]) + S[0x300 | (r & 0xff)]) ^ P[16];
+        return ((long) (r ^ P[BLOWFISH_NUM_ROUNDS + 1]) << 32) | (l & 0xffffffffL);
     }
 
     /**
-     * Cycically extract a word of key material
+     * Cycically extract a word of key material. The caller advances
+     * the offset with <code>off = (off + 4) % len</code>
      * 
      * @param data
      *            the string to extract the data from
-     * @param offp
-     *            a "pointer" (as a one-entry array) to the
-     *            current offset into data
+     * @param len
+     *            the number of bytes of data to cycle through
+     * @param off
+     *            the current offset into data
      * @return the next word of material from data
      */
-    private static int streamtoword(byte data[], int offp[]) {
+    private static int streamtoword(byte data[], int len, int off) {
         int i;
         int word = 0;
-        int off = offp[0];
 
         for (i = 0; i < 4; i++) {
             word = (word << 8) | (data[off] & 0xff);
-            off = (off + 1) % data.length;
+            off = (off + 1) % len;
         }
 
-        offp[0] = off;
         return word;
     }
 
@@ -426,36 +344,54 @@ public class BCrypt {
      * Initialise the Blowfish key schedule
      */
     private void init_key() {
-        P = (int[]) P_orig.clone();
-        S = (int[]) S_orig.clone();
+        System.arraycopy(P_orig, 0, P, 0, P_orig.length);
+        System.arraycopy(S_orig, 0, S, 0, S_orig.length);
     }
 
     /**
-     * Key the Blowfish cipher
+     * Extract the words of key material XORed into the expanded key
      * 
      * @param key
      *            an array containing the key
+     * @param klen
+     *            the number of bytes of the key
+     * @param words
+     *            the array receiving one word for each entry of P
      */
-    private void key(byte key[]) {
-        int i;
-        int koffp[] = { 0 };
-        int lr[] = { 0, 0 };
-        int plen = P.length, slen = S.length;
+    private static void stream_key(byte key[], int klen, int words[]) {
+        int koff = 0;
 
-        for (i = 0; i < plen; i++) {
-            P[i] = P[i] ^ streamtoword(key, koffp);
+        for (int i = 0; i < words.length; i++) {
+            words[i] = streamtoword(key, klen, koff);
+            koff = (koff + 4) % klen;
         }
+    }
 
-        for (i = 0; i < plen; i += 2) {
-            encipher(lr, 0);
-            P[i] = lr[0];
-            P[i + 1] = lr[1];
+    /**
+     * Key the Blowfish cipher
+     * 
+     * @param words
+     *            the key material, as extracted by stream_key
+     */
+    private void key(int words[]) {
+        final int P[] = this.P, S[] = this.S;
+        int i, l = 0, r = 0;
+        long lr;
+
+        for (i = 0; i < P.length; i++) {
+            P[i] ^= words[i];
+        }
+
+        for (i = 0; i < P.length; i += 2) {
+            lr = encipher(P, S, l, r);
+            P[i] = l = (int) (lr >>> 32);
+            P[i + 1] = r = (int) lr;
         }
 
-        for (i = 0; i < slen; i += 2) {
-            encipher(lr, 0);
-            S[i] = lr[0];
-            S[i + 1] = lr[1];
+        for (i = 0; i < S.length; i += 2) {
+            lr = encipher(P, S, l, r);
+            S[i] = l = (int) (lr >>> 32);
+            S[i + 1] = r = (int) lr;
         }
     }
 
@@ -466,33 +402,41 @@ public class BCrypt {
      * 
      * @param data
      *            salt information
+     * @param dlen
+     *            the number of bytes of salt
      * @param key
      *            password information
+     * @param klen
+     *            the number of bytes of password
      */
-    private void ekskey(byte data[], byte key[]) {
-        int i;
-        int koffp[] = { 0 }, doffp[] = { 0 };
-        int lr[] = { 0, 0 };
-        int plen = P.length, slen = S.length;
-
-        for (i = 0; i < plen; i++) {
-            P[i] = P[i] ^ streamtoword(key, koffp);
+    private void ekskey(byte data[], int dlen, byte key[], int klen) {
+        final int P[] = this.P, S[] = this.S;
+        int i, koff = 0, doff = 0, l = 0, r = 0;
+        long lr;
+
+        for (i = 0; i < P.length; i++) {
+            P[i] ^= streamtoword(key, klen, koff);
+            koff = (koff + 4) % klen;
         }
 
-        for (i = 0; i < plen; i += 2) {
-            lr[0] ^= streamtoword(data, doffp);
-            lr[1] ^= streamtoword(data, doffp);
-            encipher(lr, 0);
-            P[i] = lr[0];
-            P[i + 1] = lr[1];
+        for (i = 0; i < P.length; i += 2) {
+            l ^= streamtoword(data, dlen, doff);
+            doff = (doff + 4) % dlen;
+            r ^= streamtoword(data, dlen, doff);
+            doff = (doff + 4) % dlen;
+            lr = encipher(P, S, l, r);
+            P[i] = l = (int) (lr >>> 32);
+            P[i + 1] = r = (int) lr;
         }
 
-        for (i = 0; i < slen; i += 2) {
-            lr[0] ^= streamtoword(data, doffp);
-            lr[1] ^= streamtoword(data, doffp);
-            encipher(lr, 0);
-            S[i] = lr[0];
-            S[i + 1] = lr[1];
+        for (i = 0; i < S.length; i += 2) {
+            l ^= streamtoword(data, dlen, doff);
+            doff = (doff + 4) % dlen;
+            r ^= streamtoword(data, dlen, doff);
+            doff = (doff + 4) % dlen;
+            lr = encipher(P, S, l, r);
+            S[i] = l = (int) (lr >>> 32);
+            S[i + 1] = r = (int) lr;
         }
     }
 
@@ -512,43 +456,76 @@ public class BCrypt {
      * @return an array containing the binary hashed password
      */
     public byte[] crypt_raw(byte password[], byte salt[], int log_rounds, int cdata[]) {
+        if (salt.length != BCRYPT_SALT_LEN) {
+            throw new IllegalArgumentException("Bad salt length");
+        }
+        byte ret[] = new byte[cdata.length * 4];
+        crypt(password, password.length, salt, log_rounds, cdata, ret);
+        return ret;
+    }
+
+    /**
+     * Perform the central password hashing step on the first
+     * <code>plen</code> bytes of the password, writing the result
+     * into a caller supplied array
+     * 
+     * @param password
+     *            the password to hash
+     * @param plen
+     *            the number of bytes of the password
+     * @param salt
+     *            the binary salt to hash with the password
+     * @param log_rounds
+     *            the binary logarithm of the number
+     *            of rounds of hashing to apply
+     * @param cdata
+     *            the plaintext to encrypt, encrypted in place
+     * @param ret
+     *            the array receiving the binary hashed password
+     */
+    private void crypt(byte password[], int plen, byte salt[], int log_rounds, int cdata[],
+            byte ret[]) {
         int rounds, i, j;
         int clen = cdata.length;
-        byte ret[];
 
         if (log_rounds < 4 || log_rounds > 30) {
             throw new IllegalArgumentException("Bad number of rounds");
         }
         rounds = 1 << log_rounds;
-        if (salt.length != BCRYPT_SALT_LEN) {
-            throw new IllegalArgumentException("Bad salt length");
-        }
 
         init_key();
-        ekskey(salt, password);
+        ekskey(salt, salt.length, password, plen);
+        // the key material is the same in every round, extract it once
+        stream_key(password, plen, pwords);
+        stream_key(salt, salt.length, swords);
         for (i = 0; i != rounds; i++) {
-            key(password);
-            key(salt);
+            key(pwords);
+            key(swords);
         }
 
+        long lr;
         for (i = 0; i < 64; i++) {
-            for (j = 0; j < (clen >> 1); j++) {
-                encipher(cdata, j << 1);
+            for (j = 0; j < clen; j += 2) {
+                lr = encipher(P, S, cdata[j], cdata[j + 1]);
+                cdata[j] = (int) (lr >>> 32);
+                cdata[j + 1] = (int) lr;
             }
         }
 
-        ret = new byte[clen * 4];
         for (i = 0, j = 0; i < clen; i++) {
             ret[j++] = (byte) ((cdata[i] >> 24) & 0xff);
             ret[j++] = (byte) ((cdata[i] >> 16) & 0xff);
             ret[j++] = (byte) ((cdata[i] >> 8) & 0xff);
             ret[j++] = (byte) (cdata[i] & 0xff);
         }
-        return ret;
     }
 
     /**
      * Hash a password using the OpenBSD bcrypt scheme
+     * <p>
+     * The hashing is done by an engine borrowed from a shared pool,
+     * so this method is safe to call from many threads and allocates
+     * little more than the returned string.
      * 
      * @param password
      *            the password to hash
@@ -558,60 +535,206 @@ public class BCrypt {
      * @return the hashed password
      */
     public static String hashpw(String password, String salt) {
-        BCrypt B;
-        String real_salt;
-        byte passwordb[], saltb[], hashed[];
-        char minor = (char) 0;
-        int rounds, off = 0;
-        StringBuffer rs = new StringBuffer();
+        BCrypt B = ENGINES.acquire();
+        try {
+            return B.hash(password, salt);
+        } finally {
+            ENGINES.release(B);
+        }
+    }
 
-        if (salt.charAt(0) != '$' || salt.charAt(1) != '2') {
-            throw new IllegalArgumentException("Invalid salt version");
+    /**
+     * Hash a password with this engine, reusing its key schedule and
+     * buffers
+     * 
+     * @param password
+     *            the password to hash
+     * @param salt
+     *            the salt to hash with
+     * @return the hashed password
+     */
+    private String hash(String password, String salt) {
+        int off = rounds_offset(salt);
+        char minor = off == 4 ? salt.charAt(2) : (char) 0;
+        int rounds = parse_rounds(salt, off), pos = 0;
+
+        if (salt.length() < off + 25) {
+            throw new IllegalArgumentException("Invalid salt length");
         }
-        if (salt.charAt(2) == '$') {
-            off = 3;
-        } else {
-            minor = salt.charAt(2);
-            if (minor != 'a' || salt.charAt(3) != '$') {
-                throw new IllegalArgumentException("Invalid salt revision");
-            }
-            off = 4;
+        if (EncodeUtil.decodeBcryptBase64(salt, off + 3, off + 25, saltb, 0,
+                BCRYPT_SALT_LEN) != BCRYPT_SALT_LEN) {
+            throw new IllegalArgumentException("Bad salt length");
         }
 
-        // Extract number of rounds
-        if (salt.charAt(off + 2) > '$') {
-            throw new IllegalArgumentException("Missing salt rounds");
+        hash_raw(password, minor >= 'a', saltb, rounds);
+
+        encoded[pos++] = '$';
+        encoded[pos++] = '2';
+        if (minor >= 'a') {
+            encoded[pos++] = minor;
         }
-        rounds = Integer.parseInt(salt.substring(off, off + 2));
+        encoded[pos++] = '$';
+        encoded[pos++] = (char) ('0' + rounds / 10);
+        encoded[pos++] = (char) ('0' + rounds % 10);
+        encoded[pos++] = '$';
+        pos += EncodeUtil.bcryptBase64(saltb, 0, saltb.length, encoded, pos);
+        pos += EncodeUtil.bcryptBase64(hashed, 0, BCRYPT_HASH_BYTES, encoded, pos);
+        return new String(encoded, 0, pos);
+    }
 
-        real_salt = salt.substring(off + 3, off + 25);
+    /**
+     * Compute the raw hash of a password with this engine, leaving
+     * the result in the hashed buffer
+     * 
+     * @param password
+     *            the password to hash
+     * @param nul
+     *            whether the key is NUL terminated, as it is for all
+     *            minor revisions
+     * @param salt
+     *            the binary salt to hash with the password
+     * @param rounds
+     *            the binary logarithm of the number of rounds
+     */
+    private void hash_raw(String password, boolean nul, byte salt[], int rounds) {
+        int end = Math.min(password.length(), BCRYPT_MAX_KEY_LEN + 1);
+        int written = EncodeUtil.encodeUtf8(password, 0, end, passwordb, 0);
+        int plen = Math.min(written, BCRYPT_MAX_KEY_LEN);
+        if (nul) {
+            passwordb[plen++] = 0;
+        }
         try {
-            passwordb = (password + (minor >= 'a' ? "\000" : "")).getBytes("UTF-8");
-        } catch (UnsupportedEncodingException uee) {
-            throw new AssertionError("UTF-8 is not supported");
+            System.arraycopy(bf_crypt_ciphertext, 0, cdata, 0, cdata.length);
+            crypt(passwordb, plen, salt, rounds, cdata, hashed);
+        } finally {
+            Arrays.fill(passwordb, 0, Math.max(written, plen), (byte) 0);
         }
+    }
 
-        saltb = decode_base64(real_salt, BCRYPT_SALT_LEN);
+    /**
+     * Check a plaintext password against an already decoded hash,
+     * comparing the raw bytes in constant time
+     * 
+     * @param plaintext
+     *            the plaintext password to verify
+     * @param minor
+     *            the minor revision of the hash, or 0 if none
+     * @param salt
+     *            the decoded salt
+     * @param rounds
+     *            the binary logarithm of the number of rounds
+     * @param expected
+     *            the decoded hash, BCRYPT_HASH_BYTES long
+     * @return true if the password matches
+     */
+    static boolean check_raw(String plaintext, char minor, byte salt[], int rounds,
+            byte expected[]) {
+        BCrypt B = ENGINES.acquire();
+        try {
+            B.hash_raw(plaintext, minor >= 'a', salt, rounds);
+            return B.equals_raw(expected);
+        } finally {
+            ENGINES.release(B);
+        }
+    }
+
+    /**
+     * Check a plaintext password against an encoded hash with this
+     * engine, accepting only the canonical encoding of the hash just
+     * as comparing the re-encoded strings would
+     * 
+     * @param plaintext
+     *            the plaintext password to verify
+     * @param hashed
+     *            the previously-hashed password
+     * @return true if the password matches
+     */
+    private boolean check(String plaintext, String hashed) {
+        int off = rounds_offset(hashed);
+        char minor = off == 4 ? hashed.charAt(2) : (char) 0;
+        int rounds = parse_rounds(hashed, off);
+        int salt_end = off + 3 + BCRYPT_SALT_CHARS;
+        int end = salt_end + BCRYPT_HASH_CHARS;
+
+        if (hashed.length() < salt_end) {
+            throw new IllegalArgumentException("Invalid salt length");
+        }
+        if (EncodeUtil.decodeBcryptBase64(hashed, off + 3, salt_end, saltb, 0,
+                BCRYPT_SALT_LEN) != BCRYPT_SALT_LEN) {
+            throw new IllegalArgumentException("Bad salt length");
+        }
+        if (hashed.length() != end
+                || !EncodeUtil.isCanonicalBcryptBase64(hashed, off + 3, salt_end)
+                || !EncodeUtil.isCanonicalBcryptBase64(hashed, salt_end, end)
+                || EncodeUtil.decodeBcryptBase64(hashed, salt_end, end, expected, 0,
+                        BCRYPT_HASH_BYTES) != BCRYPT_HASH_BYTES) {
+            return false;
+        }
 
-        B = new BCrypt();
-        hashed = B.crypt_raw(passwordb, saltb, rounds, (int[]) bf_crypt_ciphertext.clone());
+        hash_raw(plaintext, minor >= 'a', saltb, rounds);
+        return equals_raw(expected);
+    }
 
-        rs.append("$2");
-        if (minor >= 'a') {
-            rs.append(minor);
+    /**
+     * Compare the raw hash in the hashed buffer with an expected one
+     * in constant time
+     * 
+     * @param expected
+     *            the expected hash, BCRYPT_HASH_BYTES long
+     * @return true if the hashes are equal
+     */
+    private boolean equals_raw(byte expected[]) {
+        int diff = 0;
+        for (int i = 0; i < BCRYPT_HASH_BYTES; i++) {
+            diff |= hashed[i] ^ expected[i];
         }
-        rs.append("$");
-        if (rounds < 10) {
-            rs.append("0");
+        return diff == 0;
+    }
+
+    /**
+     * Check the version prefix of a salt or hash and locate its
+     * rounds field. The minor revisions 'a', 'b' (OpenBSD) and 'y'
+     * (PHP) are accepted; as the key is never used beyond its first
+     * 72 bytes here, all three compute the same hash
+     * 
+     * @param salt
+     *            the salt or previously-hashed password
+     * @return the offset of the number of rounds
+     */
+    static int rounds_offset(String salt) {
+        if (salt.charAt(0) != '$' || salt.charAt(1) != '2') {
+            throw new IllegalArgumentException("Invalid salt version");
         }
-        if (rounds > 30) {
-            throw new IllegalArgumentException("rounds exceeds maximum (30)");
+        if (salt.charAt(2) == '$') {
+            return 3;
         }
-        rs.append(Integer.toString(rounds));
-        rs.append("$");
-        rs.append(encode_base64(saltb, saltb.length));
-        rs.append(encode_base64(hashed, bf_crypt_ciphertext.length * 4 - 1));
-        return rs.toString();
+        char minor = salt.charAt(2);
+        if ((minor != 'a' && minor != 'b' && minor != 'y') || salt.charAt(3) != '$') {
+            throw new IllegalArgumentException("Invalid salt revision");
+        }
+        return 4;
+    }
+
+    /**
+     * Extract the two-digit number of rounds of a salt or hash
+     * 
+     * @param salt
+     *            the salt or previously-hashed password
+     * @param off
+     *            the offset of the number of rounds
+     * @return the binary logarithm of the number of rounds
+     */
+    static int parse_rounds(String salt, int off) {
+        if (salt.charAt(off + 2) > '$') {
+            throw new IllegalArgumentException("Missing salt rounds");
+        }
+        int hi = Character.digit(salt.charAt(off), 10);
+        int lo = Character.digit(salt.charAt(off + 1), 10);
+        if (hi < 0 || lo < 0) {
+            throw new NumberFormatException(
+                    "For input string: \"" + salt.substring(off, off + 2) + "\"");
+        }
+        return hi * 10 + lo;
     }
 
     /**
@@ -626,7 +749,7 @@ public class BCrypt {
      * @return an encoded salt value
      */
     public static String gensalt(int log_rounds, SecureRandom random) {
-        StringBuffer rs = new StringBuffer();
+        StringBuilder rs = new StringBuilder(29);
         byte rnd[] = new byte[BCRYPT_SALT_LEN];
 
         random.nextBytes(rnd);
@@ -640,21 +763,23 @@ public class BCrypt {
         }
         rs.append(Integer.toString(log_rounds));
         rs.append("$");
-        rs.append(encode_base64(rnd, rnd.length));
+        EncodeUtil.appendBcryptBase64(rs, rnd, 0, rnd.length);
         return rs.toString();
     }
 
     /**
-     * Generate a salt for use with the BCrypt.hashpw() method
+     * Generate a salt for use with the BCrypt.hashpw() method, using
+     * a shared non-blocking SecureRandom
      * 
      * @param log_rounds
      *            the log2 of the number of rounds of
      *            hashing to apply - the work factor therefore increases as
      *            2**log_rounds.
      * @return an encoded salt value
+     * @see SaltGenerator
      */
     public static String gensalt(int log_rounds) {
-        return gensalt(log_rounds, new SecureRandom());
+        return gensalt(log_rounds, SaltGenerator.random());
     }
 
     /**
@@ -671,6 +796,10 @@ public class BCrypt {
     /**
      * Check that a plaintext password matches a previously hashed
      * one
+     * <p>
+     * The stored hash is decoded into the engine's buffers and the
+     * raw hash bytes are compared in constant time, no intermediate
+     * strings or byte arrays are created.
      * 
      * @param plaintext
      *            the plaintext password to verify
@@ -679,22 +808,100 @@ public class BCrypt {
      * @return true if the passwords match, false otherwise
      */
     public static boolean checkpw(String plaintext, String hashed) {
-        byte hashed_bytes[];
-        byte try_bytes[];
+        BCrypt B = ENGINES.acquire();
         try {
-            String try_pw = hashpw(plaintext, hashed);
-            hashed_bytes = hashed.getBytes("UTF-8");
-            try_bytes = try_pw.getBytes("UTF-8");
-        } catch (UnsupportedEncodingException uee) {
-            return false;
+            return B.check(plaintext, hashed);
+        } finally {
+            ENGINES.release(B);
         }
-        if (hashed_bytes.length != try_bytes.length) {
-            return false;
-        }
-        byte ret = 0;
-        for (int i = 0; i < try_bytes.length; i++) {
-            ret |= hashed_bytes[i] ^ try_bytes[i];
+    }
+
+    /**
+     * Check that a plaintext password matches a previously hashed
+     * and already parsed one, skipping the parsing of the hash
+     * 
+     * @param plaintext
+     *            the plaintext password to verify
+     * @param hashed
+     *            the previously-hashed password
+     * @return true if the passwords match, false otherwise
+     * @see BCryptHash#parse(String)
+     */
+    public static boolean checkpw(String plaintext, BCryptHash hashed) {
+        return hashed.matches(plaintext);
+    }
+
+    /**
+     * Check whether a previously-hashed password was computed with
+     * fewer rounds than the current target, so that it should be
+     * re-hashed the next time the plaintext is available
+     * 
+     * @param hashed
+     *            the previously-hashed password
+     * @param target_rounds
+     *            the log2 of the number of rounds now required
+     * @return true if the hash uses fewer rounds than target_rounds
+     */
+    public static boolean needsRehash(String hashed, int target_rounds) {
+        return parse_rounds(hashed, rounds_offset(hashed)) < target_rounds;
+    }
+
+    /**
+     * Check a plaintext password and, if it matches a hash computed
+     * with fewer rounds than target_rounds, re-hash it with the
+     * target number of rounds. The new hash is computed before this
+     * method returns
+     * 
+     * @param plaintext
+     *            the plaintext password to verify
+     * @param hashed
+     *            the previously-hashed password
+     * @param target_rounds
+     *            the log2 of the number of rounds now required
+     * @return the verification result, carrying the new hash if one
+     *         was computed
+     */
+    public static BCryptVerification checkAndUpgrade(String plaintext, String hashed,
+            int target_rounds) {
+        boolean matched = checkpw(plaintext, hashed);
+        boolean rehash = matched && needsRehash(hashed, target_rounds);
+        String upgraded = rehash ? hashpw(plaintext, gensalt(target_rounds)) : null;
+        return new BCryptVerification(matched, rehash, CompletableFuture.completedFuture(upgraded));
+    }
+
+    /**
+     * Check a plaintext password and, if it matches a hash computed
+     * with fewer rounds than target_rounds, re-hash it on the given
+     * executor. Only the verification is done on the calling thread,
+     * so the extra hashing does not add to login latency
+     * 
+     * @param plaintext
+     *            the plaintext password to verify
+     * @param hashed
+     *            the previously-hashed password
+     * @param target_rounds
+     *            the log2 of the number of rounds now required
+     * @param executor
+     *            the executor computing the new hash
+     * @return the verification result, whose upgraded hash completes
+     *         when the background hashing is done
+     */
+    public static BCryptVerification checkAndUpgrade(String plaintext, String hashed,
+            int target_rounds, Executor executor) {
+        boolean matched = checkpw(plaintext, hashed);
+        boolean rehash = matched && needsRehash(hashed, target_rounds);
+        CompletableFuture<String> upgraded;
+        if (!rehash) {
+            upgraded = CompletableFuture.completedFuture(null);
+        } else {
+            try {
+                upgraded = CompletableFuture
+                        .supplyAsync(() -> hashpw(plaintext, gensalt(target_rounds)), executor);
+            } catch (RejectedExecutionException e) {
+                upgraded = new CompletableFuture<>();
+                upgraded.completeExceptionally(e);
+            }
         }
-        return ret == 0;
+        return new BCryptVerification(matched, rehash, upgraded);
     }
 }
@@ -0,0 +1,210 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午5:20:37
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.code;
+
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * bcrypt强度的校准结果<br>
+ * 在当前机器上实际测量{@linkplain BCrypt#crypt_raw(byte[], byte[], int, int[])}的耗时，
+ * 选择耗时不超过给定预算的最高强度，避免在代码中写死强度：新机器上强度不够，旧机器上又太慢。
+ * 一般在程序启动时校准一次，之后使用{@linkplain #gensalt()}生成盐值：
+ *
+ * <pre>
+ * BCryptCalibration calibration = BCryptCalibration.calibrate(250, TimeUnit.MILLISECONDS);
+ * String hashed = BCrypt.hashpw(password, calibration.gensalt());
+ * </pre>
+ *
+ * 每个强度测量多次，取其中最慢的一次和预算比较，近似于高分位的延迟。bcrypt的耗时随强度翻倍，
+ * 所以某个强度的耗时超过预算的一半时就不再测量更高的强度。测量过的耗时可以通过{@linkplain #getTimings()}取得，用于核对
+ *
+ * @author 阿信sxq
+ *
+ */
+public final class BCryptCalibration {
+
+    private static final Logger log = LoggerFactory.getLogger(BCryptCalibration.class);
+
+    /**
+     * bcrypt允许的最低强度
+     */
+    public static final int MIN_LOG_ROUNDS = 4;
+
+    /**
+     * bcrypt允许的最高强度
+     */
+    public static final int MAX_LOG_ROUNDS = 30;
+
+    /**
+     * 默认每个强度测量的次数
+     */
+    public static final int DEFAULT_SAMPLES = 5;
+
+    /**
+     * 正式测量之前在最低强度下预热的次数，让JIT完成编译
+     */
+    private static final int WARMUP = 20;
+
+    private final int logRounds;
+    private final long budgetNanos;
+    private final SortedMap<Integer, Long> timings;
+
+    private BCryptCalibration(int logRounds, long budgetNanos, SortedMap<Integer, Long> timings) {
+        this.logRounds = logRounds;
+        this.budgetNanos = budgetNanos;
+        this.timings = Collections.unmodifiableSortedMap(timings);
+    }
+
+    /**
+     * 使用默认的测量次数校准强度
+     *
+     * @param budget
+     *            每次计算允许的最长耗时
+     * @param unit
+     *            耗时的时间单位
+     * @return 校准结果
+     * @see #calibrate(long, TimeUnit, int)
+     */
+    public static BCryptCalibration calibrate(long budget, TimeUnit unit) {
+        return calibrate(budget, unit, DEFAULT_SAMPLES);
+    }
+
+    /**
+     * 校准强度，选择最慢一次耗时不超过预算的最高强度，预算连最低强度都不够时使用最低强度
+     *
+     * @param budget
+     *            每次计算允许的最长耗时
+     * @param unit
+     *            耗时的时间单位
+     * @param samples
+     *            每个强度测量的次数
+     * @return 校准结果
+     */
+    public static BCryptCalibration calibrate(long budget, TimeUnit unit, int samples) {
+        long budgetNanos = unit.toNanos(budget);
+        if (budgetNanos <= 0) {
+            throw new IllegalArgumentException("budget must be positive: " + budget + " " + unit);
+        }
+        if (samples <= 0) {
+            throw new IllegalArgumentException("samples must be positive: " + samples);
+        }
+        SecureRandom random = new SecureRandom();
+        byte[] password = new byte[16];
+        byte[] salt = new byte[16];
+        random.nextBytes(password);
+        random.nextBytes(salt);
+        BCrypt engine = new BCrypt();
+        int[] cdata = new int[6];
+        for (int i = 0; i < WARMUP; i++) {
+            engine.crypt_raw(password, salt, MIN_LOG_ROUNDS, cdata);
+        }
+
+        SortedMap<Integer, Long> timings = new TreeMap<>();
+        int chosen = MIN_LOG_ROUNDS;
+        for (int rounds = MIN_LOG_ROUNDS; rounds <= MAX_LOG_ROUNDS; rounds++) {
+            long slowest = 0L;
+            for (int i = 0; i < samples; i++) {
+                long start = System.nanoTime();
+                engine.crypt_raw(password, salt, rounds, cdata);
+                slowest = Math.max(slowest, System.nanoTime() - start);
+            }
+            timings.put(rounds, slowest);
+            if (slowest > budgetNanos) {
+                break;
+            }
+            chosen = rounds;
+            // the next cost takes twice as long, don't spend time measuring it
+            if (slowest > budgetNanos / 2) {
+                break;
+            }
+        }
+        BCryptCalibration calibration = new BCryptCalibration(chosen, budgetNanos, timings);
+        log.info("bcrypt calibrated: {}", calibration);
+        return calibration;
+    }
+
+    /**
+     * 选择的强度
+     *
+     * @return 强度，也就是计算轮数以2为底的对数
+     */
+    public int getLogRounds() {
+        return logRounds;
+    }
+
+    /**
+     * 校准时使用的耗时预算
+     *
+     * @return 预算的纳秒数
+     */
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    /**
+     * 测量过的每个强度最慢一次的耗时
+     *
+     * @return 强度到耗时纳秒数的映射，不可修改
+     */
+    public SortedMap<Integer, Long> getTimings() {
+        return timings;
+    }
+
+    /**
+     * 使用选择的强度生成盐值
+     *
+     * @return 盐值
+     * @see BCrypt#gensalt(int)
+     */
+    public String gensalt() {
+        return BCrypt.gensalt(logRounds);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(64 + timings.size() * 16);
+        sb.append("BCryptCalibration [logRounds=").append(logRounds).append(", budget=")
+                .append(TimeUnit.NANOSECONDS.toMillis(budgetNanos)).append("ms, timings={");
+        boolean first = true;
+        for (Map.Entry<Integer, Long> entry : timings.entrySet()) {
+            if (!first) {
+                sb.append(", ");
+            }
+            first = false;
+            sb.append(entry.getKey()).append('=')
+                    .append(TimeUnit.NANOSECONDS.toMicros(entry.getValue()) / 1000.0).append("ms");
+        }
+        return sb.append("}]").toString();
+    }
+
+}
@@ -0,0 +1,166 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午6:12:54
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.code;
+
+/**
+ * 解析之后的bcrypt散列值<br>
+ * 保存解码后的盐值、散列结果和强度，同一个散列值多次检查时不需要重复解析字符串。
+ * 支持{@code $2$}、{@code $2a$}、{@code $2b$}(OpenBSD、Node.js)和{@code $2y$}(PHP)格式，
+ * 密码只有前72个字节参与计算，这几种格式对同一个密码和盐值的计算结果相同。<br>
+ * 实例是不可变的，可以在多个线程之间共享
+ *
+ * @author 阿信sxq
+ *
+ * @see BCrypt#checkpw(String, BCryptHash)
+ */
+public final class BCryptHash {
+
+    private final String value;
+    private final char minor;
+    private final int logRounds;
+    private final byte[] salt;
+    private final byte[] hash;
+
+    private BCryptHash(String value, char minor, int logRounds, byte[] salt, byte[] hash) {
+        this.value = value;
+        this.minor = minor;
+        this.logRounds = logRounds;
+        this.salt = salt;
+        this.hash = hash;
+    }
+
+    /**
+     * 解析bcrypt散列值
+     *
+     * @param hashed
+     *            散列值字符串，例如{@code $2y$10$...}
+     * @return 解析的结果
+     * @throws IllegalArgumentException
+     *             格式不正确时
+     */
+    public static BCryptHash parse(String hashed) {
+        if (hashed.length() < 7) {
+            throw new IllegalArgumentException("Invalid hash length");
+        }
+        int off = BCrypt.rounds_offset(hashed);
+        char minor = off == 4 ? hashed.charAt(2) : (char) 0;
+        int rounds = BCrypt.parse_rounds(hashed, off);
+        if (rounds < 4 || rounds > 30) {
+            throw new IllegalArgumentException("Bad number of rounds");
+        }
+        int saltEnd = off + 3 + EncodeUtil.bcryptBase64Length(BCrypt.BCRYPT_SALT_LEN);
+        int end = saltEnd + EncodeUtil.bcryptBase64Length(BCrypt.BCRYPT_HASH_BYTES);
+        if (hashed.length() != end) {
+            throw new IllegalArgumentException("Invalid hash length");
+        }
+        if (!EncodeUtil.isCanonicalBcryptBase64(hashed, off + 3, saltEnd)
+                || !EncodeUtil.isCanonicalBcryptBase64(hashed, saltEnd, end)) {
+            throw new IllegalArgumentException("Invalid hash encoding");
+        }
+        byte[] salt = new byte[BCrypt.BCRYPT_SALT_LEN];
+        byte[] hash = new byte[BCrypt.BCRYPT_HASH_BYTES];
+        if (EncodeUtil.decodeBcryptBase64(hashed, off + 3, saltEnd, salt, 0,
+                salt.length) != salt.length) {
+            throw new IllegalArgumentException("Bad salt length");
+        }
+        if (EncodeUtil.decodeBcryptBase64(hashed, saltEnd, end, hash, 0,
+                hash.length) != hash.length) {
+            throw new IllegalArgumentException("Bad hash length");
+        }
+        return new BCryptHash(hashed, minor, rounds, salt, hash);
+    }
+
+    /**
+     * 检查密码是否匹配，比较的是解码后的散列结果，耗时和不匹配的位置无关
+     *
+     * @param plaintext
+     *            需要检查的密码
+     * @return 匹配时返回{@code true}
+     */
+    public boolean matches(String plaintext) {
+        return BCrypt.check_raw(plaintext, minor, salt, logRounds, hash);
+    }
+
+    /**
+     * 强度是否低于目标强度
+     *
+     * @param targetRounds
+     *            目标强度
+     * @return 低于目标强度时返回{@code true}
+     * @see BCrypt#needsRehash(String, int)
+     */
+    public boolean needsRehash(int targetRounds) {
+        return logRounds < targetRounds;
+    }
+
+    /**
+     * 格式的次版本号
+     *
+     * @return {@code 'a'}、{@code 'b'}、{@code 'y'}，{@code $2$}格式时返回{@code 0}
+     */
+    public char getMinor() {
+        return minor;
+    }
+
+    /**
+     * 强度
+     *
+     * @return 计算轮数以2为底的对数
+     */
+    public int getLogRounds() {
+        return logRounds;
+    }
+
+    /**
+     * 解码后的盐值
+     *
+     * @return 16字节的盐值，每次返回新的数组
+     */
+    public byte[] getSalt() {
+        return salt.clone();
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        return obj instanceof BCryptHash && value.equals(((BCryptHash) obj).value);
+    }
+
+    /**
+     * 原始的散列值字符串
+     */
+    @Override
+    public String toString() {
+        return value;
+    }
+
+}
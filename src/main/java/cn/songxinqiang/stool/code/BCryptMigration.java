@@ -0,0 +1,700 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午7:41:20
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.code;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 批量把已有的散列值(例如{@link MD5Code}计算的密码摘要)用bcrypt重新计算的迁移工具<br>
+ * 输入是CSV或者TSV格式的文本文件，每行一条记录，其中一列是需要重新计算的值，输出文件中这一列被替换为bcrypt散列值，
+ * 其余列原样保留。迁移之后检查密码时先计算原来的摘要再检查bcrypt散列值，例如
+ * {@code BCrypt.checkpw(MD5Code.hex(password), stored)}。
+ * <ul>
+ * <li>输入文件逐行读取，按批次交给和处理器数相同的线程并行计算，同时计算的批次数有上限，计算跟不上时读取会等待</li>
+ * <li>结果按照输入的顺序写入，每完成一个批次就刷新到磁盘并记录检查点(输出文件名加上{@code .checkpoint})，
+ * 中断之后再次运行会从检查点继续，全部完成后删除检查点</li>
+ * <li>每完成一个批次报告一次进度，包括速度(每秒计算的散列值数)和按读取的字节数估计的剩余时间，不需要预先扫描整个文件</li>
+ * </ul>
+ * 字段使用分隔符简单拆分，不支持带引号的字段。也可以在命令行中运行，参数见{@linkplain #main(String[])}
+ *
+ * @author 阿信sxq
+ *
+ */
+public final class BCryptMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(BCryptMigration.class);
+
+    /**
+     * 默认每个批次的记录数
+     */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    /**
+     * 检查点文件名的后缀
+     */
+    public static final String CHECKPOINT_SUFFIX = ".checkpoint";
+
+    /**
+     * 输出日志的最小间隔
+     */
+    private static final long LOG_INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+    private final int logRounds;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private char delimiter;
+    private int hashColumn = 1;
+    private boolean header;
+    private ProgressListener listener;
+
+    /**
+     * 创建迁移工具
+     *
+     * @param logRounds
+     *            新的bcrypt散列值的强度
+     */
+    public BCryptMigration(int logRounds) {
+        if (logRounds < 4 || logRounds > 30) {
+            throw new IllegalArgumentException("Bad number of rounds: " + logRounds);
+        }
+        this.logRounds = logRounds;
+    }
+
+    /**
+     * 设置计算线程数，默认等于处理器数
+     *
+     * @param threads
+     *            线程数
+     */
+    public void setThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * 设置每个批次的记录数，也是记录检查点的间隔
+     *
+     * @param batchSize
+     *            记录数
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 设置字段分隔符，没有设置时扩展名是{@code .tsv}的文件使用制表符，其他文件使用逗号
+     *
+     * @param delimiter
+     *            分隔符
+     */
+    public void setDelimiter(char delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * 设置需要重新计算的列，从{@code 0}开始，默认是{@code 1}，也就是{@code id,hash}格式中的第二列
+     *
+     * @param hashColumn
+     *            列的序号
+     */
+    public void setHashColumn(int hashColumn) {
+        if (hashColumn < 0) {
+            throw new IllegalArgumentException("hashColumn must not be negative: " + hashColumn);
+        }
+        this.hashColumn = hashColumn;
+    }
+
+    /**
+     * 设置输入文件的第一行是否是标题行，标题行原样写入输出文件
+     *
+     * @param header
+     *            有标题行时为{@code true}
+     */
+    public void setHeader(boolean header) {
+        this.header = header;
+    }
+
+    /**
+     * 设置进度监听器，每完成一个批次在调用{@linkplain #run(File, File)}的线程中通知一次
+     *
+     * @param listener
+     *            监听器
+     */
+    public void setListener(ProgressListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * 执行迁移，存在检查点时从检查点继续，否则覆盖输出文件
+     *
+     * @param input
+     *            输入文件
+     * @param output
+     *            输出文件
+     * @return 最终的进度
+     * @throws IOException
+     *             读写文件出错时
+     */
+    public Progress run(File input, File output) throws IOException {
+        if (!input.isFile()) {
+            throw new FileNotFoundException(input.getPath());
+        }
+        char delim = delimiter != 0 ? delimiter
+                : input.getName().toLowerCase().endsWith(".tsv") ? '\t' : ',';
+        Path checkpoint = new File(output.getPath() + CHECKPOINT_SUFFIX).toPath();
+        long[] resume = readCheckpoint(checkpoint);
+        if (resume[0] > 0) {
+            log.info("resume migration of {} from line {}", input, resume[0]);
+        }
+
+        LongAdder skipped = new LongAdder();
+        ExecutorService pool = Executors.newFixedThreadPool(threads,
+                new DaemonThreadFactory("bcrypt-migration"));
+        SaltGenerator salts = new SaltGenerator(logRounds,
+                Math.min(batchSize * threads, SaltGenerator.DEFAULT_CAPACITY));
+        Tracker tracker;
+        try (FileChannel channel = FileChannel.open(output.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+                CountingInputStream counter = new CountingInputStream(
+                        Files.newInputStream(input.toPath()));
+                BufferedReader reader = new BufferedReader(new InputStreamReader(counter,
+                        StandardCharsets.UTF_8.newDecoder()))) {
+            channel.truncate(resume[1]);
+            channel.position(resume[1]);
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel),
+                    1 << 16);
+            long line = 0L;
+            String next = reader.readLine();
+            for (; line < resume[0] && next != null; line++) {
+                next = reader.readLine();
+            }
+            tracker = new Tracker(input.length(), resume[0], counter.count);
+
+            ArrayDeque<Batch> inFlight = new ArrayDeque<>();
+            int maxInFlight = threads * 2;
+            while (next != null) {
+                String[] records = new String[batchSize];
+                long first = line;
+                int count = 0;
+                for (; count < batchSize && next != null; count++, line++) {
+                    records[count] = next;
+                    next = reader.readLine();
+                }
+                String[] batch = count == batchSize ? records : Arrays.copyOf(records, count);
+                boolean withHeader = header && first == 0L;
+                inFlight.add(new Batch(line, counter.count, CompletableFuture.supplyAsync(
+                        () -> convert(batch, withHeader, delim, salts, skipped), pool)));
+                // back-pressure: wait for the oldest batch before reading more
+                if (inFlight.size() >= maxInFlight) {
+                    write(inFlight.poll(), out, channel, checkpoint, tracker, skipped);
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                write(inFlight.poll(), out, channel, checkpoint, tracker, skipped);
+            }
+        } finally {
+            pool.shutdownNow();
+            salts.close();
+        }
+        Files.deleteIfExists(checkpoint);
+        Progress progress = tracker.progress(skipped.sum());
+        log.info("migration of {} finished: {}", input, progress);
+        return progress;
+    }
+
+    /**
+     * 计算一个批次的结果，标题行、空行和缺少需要计算的列的记录原样输出
+     */
+    private Converted convert(String[] records, boolean withHeader, char delim,
+            SaltGenerator salts, LongAdder skipped) {
+        String[] result = new String[records.length];
+        int hashed = 0;
+        for (int i = 0; i < records.length; i++) {
+            String record = records[i];
+            result[i] = record;
+            if ((withHeader && i == 0) || record.isEmpty()) {
+                continue;
+            }
+            int start = 0;
+            for (int c = 0; c < hashColumn && start >= 0; c++) {
+                start = record.indexOf(delim, start);
+                start = start < 0 ? -1 : start + 1;
+            }
+            if (start < 0) {
+                skipped.increment();
+                continue;
+            }
+            int end = record.indexOf(delim, start);
+            if (end < 0) {
+                end = record.length();
+            }
+            if (start == end) {
+                skipped.increment();
+                continue;
+            }
+            String hash = BCrypt.hashpw(record.substring(start, end), salts.next());
+            result[i] = record.substring(0, start) + hash + record.substring(end);
+            hashed++;
+        }
+        return new Converted(result, hashed);
+    }
+
+    /**
+     * 写入一个批次的结果并记录检查点
+     */
+    private void write(Batch batch, OutputStream out, FileChannel channel, Path checkpoint,
+            Tracker tracker, LongAdder skipped) throws IOException {
+        Converted result;
+        try {
+            result = batch.result.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("migration failed before line " + batch.endLine,
+                    e.getCause());
+        }
+        for (String line : result.lines) {
+            out.write((line + LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8));
+        }
+        out.flush();
+        channel.force(false);
+        writeCheckpoint(checkpoint, batch.endLine, channel.position());
+        if (tracker.update(batch.endLine, batch.endBytes, result.hashed)) {
+            log.info("migration progress: {}", tracker.progress(skipped.sum()));
+        }
+        if (listener != null) {
+            listener.onProgress(tracker.progress(skipped.sum()));
+        }
+    }
+
+    /**
+     * 读取检查点
+     *
+     * @return 已经处理的行数和输出文件的有效长度，没有检查点时都是{@code 0}
+     */
+    private static long[] readCheckpoint(Path checkpoint) throws IOException {
+        long[] value = new long[2];
+        if (!Files.isRegularFile(checkpoint)) {
+            return value;
+        }
+        List<String> lines = Files.readAllLines(checkpoint, StandardCharsets.UTF_8);
+        for (String line : lines) {
+            int index = line.indexOf('=');
+            if (index < 0) {
+                continue;
+            }
+            String key = line.substring(0, index).trim();
+            long number = Long.parseLong(line.substring(index + 1).trim());
+            if ("lines".equals(key)) {
+                value[0] = number;
+            } else if ("bytes".equals(key)) {
+                value[1] = number;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 先写入临时文件再替换，检查点文件总是完整的
+     */
+    private static void writeCheckpoint(Path checkpoint, long lines, long bytes)
+            throws IOException {
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        String content = "lines=" + lines + "\nbytes=" + bytes + "\n";
+        Files.write(temp, content.getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.move(temp, checkpoint, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 命令行入口，参数格式：
+     *
+     * <pre>
+     * [-r 强度] [-t 线程数] [-b 批次大小] [-c 列序号] [-d 分隔符] [-H] 输入文件 输出文件
+     * </pre>
+     *
+     * 强度默认是{@code 10}，{@code -H}表示输入文件有标题行，分隔符可以写成{@code \t}
+     *
+     * @param args
+     *            命令行参数
+     * @throws IOException
+     *             读写文件出错时
+     */
+    public static void main(String[] args) throws IOException {
+        int rounds = 10;
+        Integer threads = null;
+        Integer batch = null;
+        Integer column = null;
+        Character delim = null;
+        boolean withHeader = false;
+        int i = 0;
+        try {
+            for (; i < args.length && args[i].startsWith("-"); i++) {
+                switch (args[i]) {
+                case "-r":
+                    rounds = Integer.parseInt(args[++i]);
+                    break;
+                case "-t":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "-b":
+                    batch = Integer.parseInt(args[++i]);
+                    break;
+                case "-c":
+                    column = Integer.parseInt(args[++i]);
+                    break;
+                case "-d":
+                    String d = args[++i];
+                    delim = "\\t".equals(d) ? '\t' : d.charAt(0);
+                    break;
+                case "-H":
+                    withHeader = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option: " + args[i]);
+                }
+            }
+            if (args.length - i != 2) {
+                throw new IllegalArgumentException("input and output files are required");
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println("usage: " + BCryptMigration.class.getName()
+                    + " [-r rounds] [-t threads] [-b batch] [-c column] [-d delimiter] [-H]"
+                    + " input output");
+            System.exit(1);
+            return;
+        }
+
+        BCryptMigration migration = new BCryptMigration(rounds);
+        if (threads != null) {
+            migration.setThreads(threads);
+        }
+        if (batch != null) {
+            migration.setBatchSize(batch);
+        }
+        if (column != null) {
+            migration.setHashColumn(column);
+        }
+        if (delim != null) {
+            migration.setDelimiter(delim);
+        }
+        migration.setHeader(withHeader);
+        long[] last = { 0L };
+        migration.setListener(progress -> {
+            long now = System.nanoTime();
+            if (now - last[0] >= TimeUnit.SECONDS.toNanos(1)) {
+                last[0] = now;
+                System.out.println(progress);
+            }
+        });
+        System.out.println(migration.run(new File(args[i]), new File(args[i + 1])));
+    }
+
+    /**
+     * 迁移进度的监听器
+     *
+     * @author 阿信sxq
+     *
+     */
+    public interface ProgressListener {
+
+        /**
+         * 完成一个批次之后调用
+         *
+         * @param progress
+         *            当前的进度
+         */
+        void onProgress(Progress progress);
+
+    }
+
+    /**
+     * 迁移的进度
+     *
+     * @author 阿信sxq
+     *
+     */
+    public static final class Progress {
+
+        private final long processedLines;
+        private final long processedBytes;
+        private final long totalBytes;
+        private final long hashed;
+        private final long skipped;
+        private final long elapsedNanos;
+        private final double rate;
+        private final long etaMillis;
+
+        Progress(long processedLines, long processedBytes, long totalBytes, long hashed,
+                long skipped, long elapsedNanos, long bytesThisRun) {
+            this.processedLines = processedLines;
+            this.processedBytes = processedBytes;
+            this.totalBytes = totalBytes;
+            this.hashed = hashed;
+            this.skipped = skipped;
+            this.elapsedNanos = elapsedNanos;
+            double seconds = elapsedNanos / 1e9;
+            this.rate = seconds > 0 ? hashed / seconds : 0.0;
+            long remaining = Math.max(0L, totalBytes - processedBytes);
+            this.etaMillis = bytesThisRun > 0
+                    ? (long) (remaining * (elapsedNanos / 1e6) / bytesThisRun)
+                    : remaining == 0 ? 0L : -1L;
+        }
+
+        /**
+         * 已经处理的输入行数，包括之前运行时处理的行
+         *
+         * @return 行数
+         */
+        public long getProcessedLines() {
+            return processedLines;
+        }
+
+        /**
+         * 已经读取的输入字节数，包括之前运行时处理的部分，读取有缓冲，是近似值
+         *
+         * @return 字节数
+         */
+        public long getProcessedBytes() {
+            return processedBytes;
+        }
+
+        /**
+         * 输入文件的字节数
+         *
+         * @return 字节数
+         */
+        public long getTotalBytes() {
+            return totalBytes;
+        }
+
+        /**
+         * 本次运行计算的散列值个数
+         *
+         * @return 个数
+         */
+        public long getHashed() {
+            return hashed;
+        }
+
+        /**
+         * 本次运行中因为缺少需要计算的列而跳过的记录数
+         *
+         * @return 记录数
+         */
+        public long getSkipped() {
+            return skipped;
+        }
+
+        /**
+         * 本次运行的时间
+         *
+         * @return 纳秒数
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * 本次运行的平均速度
+         *
+         * @return 每秒计算的散列值个数
+         */
+        public double getRate() {
+            return rate;
+        }
+
+        /**
+         * 按照本次运行读取输入的平均速度预计的剩余时间
+         *
+         * @return 毫秒数，还无法估计时返回{@code -1}
+         */
+        public long getEtaMillis() {
+            return etaMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "%d lines (%.1f%%), %d hashed, %d skipped, %.1f hashes/s, eta %ds",
+                    processedLines, totalBytes > 0 ? 100.0 * processedBytes / totalBytes : 100.0,
+                    hashed, skipped, rate, etaMillis < 0 ? -1 : etaMillis / 1000);
+        }
+
+    }
+
+    /**
+     * 正在计算的批次
+     */
+    private static final class Batch {
+
+        final long endLine;
+        final long endBytes;
+        final CompletableFuture<Converted> result;
+
+        Batch(long endLine, long endBytes, CompletableFuture<Converted> result) {
+            this.endLine = endLine;
+            this.endBytes = endBytes;
+            this.result = result;
+        }
+
+    }
+
+    /**
+     * 一个批次的计算结果
+     */
+    private static final class Converted {
+
+        final String[] lines;
+        final int hashed;
+
+        Converted(String[] lines, int hashed) {
+            this.lines = lines;
+            this.hashed = hashed;
+        }
+
+    }
+
+    /**
+     * 统计读取的字节数，只在调用{@linkplain BCryptMigration#run(File, File)}的线程中使用
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+    }
+
+    /**
+     * 记录进度，只在调用{@linkplain BCryptMigration#run(File, File)}的线程中使用
+     */
+    private static final class Tracker {
+
+        private final long totalBytes;
+        private final long startBytes;
+        private final long start = System.nanoTime();
+        private long lines;
+        private long bytes;
+        private long hashed;
+        private long lastLog = start;
+
+        Tracker(long totalBytes, long startLine, long startBytes) {
+            this.totalBytes = totalBytes;
+            this.startBytes = startBytes;
+            this.lines = startLine;
+            this.bytes = startBytes;
+        }
+
+        /**
+         * 更新进度
+         *
+         * @return 需要输出日志时返回{@code true}
+         */
+        boolean update(long endLine, long endBytes, int count) {
+            lines = endLine;
+            bytes = endBytes;
+            hashed += count;
+            long now = System.nanoTime();
+            if (now - lastLog >= LOG_INTERVAL) {
+                lastLog = now;
+                return true;
+            }
+            return false;
+        }
+
+        Progress progress(long skipped) {
+            return new Progress(lines, bytes, totalBytes, hashed, skipped,
+                    System.nanoTime() - start, bytes - startBytes);
+        }
+
+    }
+
+}
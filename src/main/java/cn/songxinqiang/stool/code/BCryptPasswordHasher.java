@@ -0,0 +1,121 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午8:22:18
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.code;
+
+/**
+ * bcrypt密码散列算法，格式是{@code $2a$10$...}，也可以检查{@code $2b$}、{@code $2y$}格式的结果<br>
+ * bcrypt只使用密码的前72个字节，需要支持更长的密码时使用{@link Pbkdf2PasswordHasher}
+ * 或{@link ScryptPasswordHasher}
+ *
+ * @author 阿信sxq
+ *
+ * @see BCrypt
+ */
+public final class BCryptPasswordHasher implements PasswordHasher {
+
+    /**
+     * 默认的强度
+     */
+    public static final int DEFAULT_LOG_ROUNDS = 10;
+
+    // 4KB S-boxes, P-array and key material
+    private static final long MEMORY = 4 * 1024 + 18 * 4 + 72;
+
+    // Blowfish encryptions in one expansion of the key schedule
+    private static final long KEY_ENCRYPTIONS = (18 + 1024) / 2;
+
+    private final int logRounds;
+
+    /**
+     * 使用默认的强度创建
+     */
+    public BCryptPasswordHasher() {
+        this(DEFAULT_LOG_ROUNDS);
+    }
+
+    /**
+     * 使用指定的强度创建
+     *
+     * @param logRounds
+     *            强度，计算轮数以2为底的对数，取值范围是{@code [4, 30]}
+     */
+    public BCryptPasswordHasher(int logRounds) {
+        if (logRounds < 4 || logRounds > 30) {
+            throw new IllegalArgumentException("Bad number of rounds: " + logRounds);
+        }
+        this.logRounds = logRounds;
+    }
+
+    /**
+     * 强度
+     *
+     * @return 计算轮数以2为底的对数
+     */
+    public int getLogRounds() {
+        return logRounds;
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return "bcrypt";
+    }
+
+    @Override
+    public String hash(String password) {
+        return BCrypt.hashpw(password, BCrypt.gensalt(logRounds));
+    }
+
+    @Override
+    public boolean verify(String password, String encoded) {
+        return BCrypt.checkpw(password, encoded);
+    }
+
+    @Override
+    public boolean supports(String encoded) {
+        return encoded.length() > 3 && encoded.charAt(0) == '$' && encoded.charAt(1) == '2';
+    }
+
+    @Override
+    public boolean needsRehash(String encoded) {
+        return !supports(encoded) || BCrypt.needsRehash(encoded, logRounds);
+    }
+
+    @Override
+    public long memoryCost() {
+        return MEMORY;
+    }
+
+    @Override
+    public long cpuCost() {
+        // two key expansions per round, one for ekskey and 64 passes over the 3 blocks
+        return (KEY_ENCRYPTIONS * 2 << logRounds) + KEY_ENCRYPTIONS + 64 * 3;
+    }
+
+    @Override
+    public String toString() {
+        return "bcrypt[logRounds=" + logRounds + "]";
+    }
+
+}
@@ -0,0 +1,285 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午4:48:12
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.code;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 异步执行bcrypt密码计算的服务<br>
+ * {@linkplain BCrypt#hashpw(String, String)}和{@linkplain BCrypt#checkpw(String, String)}
+ * 在默认的强度下每次需要几十到上百毫秒，直接在请求线程中执行时，集中的登录请求会占满整个请求线程池。
+ * 这里把计算放到独立的、有界的线程池中执行：
+ * <ul>
+ * <li>线程数默认等于处理器数，计算密集的任务再多的线程也不会更快</li>
+ * <li>等待队列有长度限制，队列满时立即返回失败的结果({@link RejectedExecutionException})，不会阻塞调用线程</li>
+ * <li>可以为每次调用指定期限，到期还没有完成时结果以{@link TimeoutException}失败，还在队列中的任务会被移除，不再占用计算资源</li>
+ * </ul>
+ * 使用完之后需要调用{@linkplain #close()}关闭线程池
+ *
+ * @author 阿信sxq
+ *
+ */
+public class BCryptService implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(BCryptService.class);
+
+    /**
+     * 默认的等待队列长度是线程数的倍数
+     */
+    private static final int DEFAULT_QUEUE_FACTOR = 64;
+
+    private static final AtomicInteger SERVICE_NUMBER = new AtomicInteger();
+
+    private final ThreadPoolExecutor executor;
+    private final ScheduledThreadPoolExecutor timer;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    /**
+     * 使用和处理器数相同的线程数创建服务，等待队列的长度是线程数的64倍
+     */
+    public BCryptService() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 使用指定的线程数创建服务，等待队列的长度是线程数的64倍
+     *
+     * @param threads
+     *            计算线程数
+     */
+    public BCryptService(int threads) {
+        this(threads, threads * DEFAULT_QUEUE_FACTOR);
+    }
+
+    /**
+     * 使用指定的线程数和等待队列长度创建服务
+     *
+     * @param threads
+     *            计算线程数
+     * @param queueCapacity
+     *            最多等待执行的任务数，超过之后新的任务立即失败
+     */
+    public BCryptService(int threads, int queueCapacity) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be positive: " + queueCapacity);
+        }
+        String prefix = "bcrypt-service-" + SERVICE_NUMBER.incrementAndGet();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new DaemonThreadFactory(prefix),
+                new ThreadPoolExecutor.AbortPolicy());
+        timer = new ScheduledThreadPoolExecutor(1,
+                new DaemonThreadFactory(prefix + "-timer"));
+        timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * 异步计算密码的散列值
+     *
+     * @param password
+     *            密码
+     * @param salt
+     *            盐值，可以使用{@linkplain BCrypt#gensalt()}生成
+     * @return 散列值的结果
+     * @see BCrypt#hashpw(String, String)
+     */
+    public CompletableFuture<String> hashpw(String password, String salt) {
+        return submit(() -> BCrypt.hashpw(password, salt), 0L, null);
+    }
+
+    /**
+     * 异步计算密码的散列值，超过期限没有完成时结果以{@link TimeoutException}失败
+     *
+     * @param password
+     *            密码
+     * @param salt
+     *            盐值，可以使用{@linkplain BCrypt#gensalt()}生成
+     * @param timeout
+     *            从调用开始计算的期限
+     * @param unit
+     *            期限的时间单位
+     * @return 散列值的结果
+     * @see BCrypt#hashpw(String, String)
+     */
+    public CompletableFuture<String> hashpw(String password, String salt, long timeout,
+            TimeUnit unit) {
+        return submit(() -> BCrypt.hashpw(password, salt), timeout, unit);
+    }
+
+    /**
+     * 异步检查密码和之前计算的散列值是否匹配
+     *
+     * @param plaintext
+     *            需要检查的密码
+     * @param hashed
+     *            之前计算的散列值
+     * @return 是否匹配的结果
+     * @see BCrypt#checkpw(String, String)
+     */
+    public CompletableFuture<Boolean> checkpw(String plaintext, String hashed) {
+        return submit(() -> BCrypt.checkpw(plaintext, hashed), 0L, null);
+    }
+
+    /**
+     * 异步检查密码和之前计算的散列值是否匹配，超过期限没有完成时结果以{@link TimeoutException}失败
+     *
+     * @param plaintext
+     *            需要检查的密码
+     * @param hashed
+     *            之前计算的散列值
+     * @param timeout
+     *            从调用开始计算的期限
+     * @param unit
+     *            期限的时间单位
+     * @return 是否匹配的结果
+     * @see BCrypt#checkpw(String, String)
+     */
+    public CompletableFuture<Boolean> checkpw(String plaintext, String hashed, long timeout,
+            TimeUnit unit) {
+        return submit(() -> BCrypt.checkpw(plaintext, hashed), timeout, unit);
+    }
+
+    /**
+     * 异步检查密码，密码匹配并且保存的散列值强度低于目标强度时，在本服务中再提交一次用目标强度重新计算散列值的任务。
+     * 检查的结果不需要等待重新计算完成，重新计算被拒绝时只有{@linkplain BCryptVerification#getUpgradedHash()}失败
+     *
+     * @param plaintext
+     *            需要检查的密码
+     * @param hashed
+     *            之前计算的散列值
+     * @param targetRounds
+     *            目标强度
+     * @return 检查的结果
+     * @see BCrypt#checkAndUpgrade(String, String, int, java.util.concurrent.Executor)
+     */
+    public CompletableFuture<BCryptVerification> checkAndUpgrade(String plaintext, String hashed,
+            int targetRounds) {
+        return submit(() -> {
+            boolean matched = BCrypt.checkpw(plaintext, hashed);
+            boolean rehash = matched && BCrypt.needsRehash(hashed, targetRounds);
+            CompletableFuture<String> upgraded = rehash
+                    ? hashpw(plaintext, BCrypt.gensalt(targetRounds))
+                    : CompletableFuture.completedFuture(null);
+            return new BCryptVerification(matched, rehash, upgraded);
+        }, 0L, null);
+    }
+
+    /**
+     * 当前等待执行的任务数
+     *
+     * @return 任务数
+     */
+    public int queueSize() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * 因为队列已满或者服务已经关闭而被拒绝的任务数
+     *
+     * @return 任务数
+     */
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * 超过期限没有完成的任务数
+     *
+     * @return 任务数
+     */
+    public long timedOutCount() {
+        return timedOut.sum();
+    }
+
+    /**
+     * 关闭服务，已经提交的任务会继续执行，之后提交的任务都会被拒绝
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        timer.shutdown();
+    }
+
+    private <T> CompletableFuture<T> submit(Callable<T> work, long timeout, TimeUnit unit) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable task = () -> {
+            // skip the work when the deadline has already passed
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(work.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        };
+        // schedule the deadline first, close() may run at any point in between
+        ScheduledFuture<?> deadline = null;
+        try {
+            if (unit != null) {
+                deadline = timer.schedule(() -> {
+                    TimeoutException e = new TimeoutException(
+                            "bcrypt task timed out after " + timeout + " " + unit);
+                    if (future.completeExceptionally(e)) {
+                        timedOut.increment();
+                        executor.remove(task);
+                    }
+                }, timeout, unit);
+            }
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
+            rejected.increment();
+            log.debug("bcrypt task rejected, queue size: {}", executor.getQueue().size());
+            future.completeExceptionally(e);
+            return future;
+        }
+        if (deadline != null) {
+            ScheduledFuture<?> scheduled = deadline;
+            future.whenComplete((r, e) -> scheduled.cancel(false));
+        }
+        return future;
+    }
+
+}
@@ -0,0 +1,108 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午5:46:09
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.code;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * 密码检查并按需升级强度的结果<br>
+ * 提高强度时不需要一次性重新计算所有的散列值：用户登录时密码是已知的，检查通过并且保存的散列值强度低于目标强度时，
+ * 用目标强度重新计算散列值并保存即可。新的散列值可能在后台计算，通过{@linkplain #getUpgradedHash()}取得：
+ *
+ * <pre>
+ * BCryptVerification result = BCrypt.checkAndUpgrade(password, user.getHash(), 12, executor);
+ * result.whenUpgraded(hash -&gt; userDao.updateHash(user.getId(), hash));
+ * if (result.isMatched()) {
+ *     // 登录成功
+ * }
+ * </pre>
+ *
+ * @author 阿信sxq
+ *
+ * @see BCrypt#checkAndUpgrade(String, String, int)
+ * @see BCrypt#checkAndUpgrade(String, String, int, java.util.concurrent.Executor)
+ */
+public final class BCryptVerification {
+
+    private final boolean matched;
+    private final boolean rehashNeeded;
+    private final CompletableFuture<String> upgradedHash;
+
+    BCryptVerification(boolean matched, boolean rehashNeeded,
+            CompletableFuture<String> upgradedHash) {
+        this.matched = matched;
+        this.rehashNeeded = rehashNeeded;
+        this.upgradedHash = upgradedHash;
+    }
+
+    /**
+     * 密码是否和保存的散列值匹配
+     *
+     * @return 匹配时返回{@code true}
+     */
+    public boolean isMatched() {
+        return matched;
+    }
+
+    /**
+     * 是否需要用新的散列值替换保存的散列值，只有密码匹配并且保存的散列值强度低于目标强度时才需要
+     *
+     * @return 需要替换时返回{@code true}
+     */
+    public boolean isRehashNeeded() {
+        return rehashNeeded;
+    }
+
+    /**
+     * 使用目标强度重新计算的散列值，不需要替换时结果是{@code null}，后台计算失败时以对应的异常失败
+     *
+     * @return 新的散列值的结果
+     */
+    public CompletableFuture<String> getUpgradedHash() {
+        return upgradedHash;
+    }
+
+    /**
+     * 新的散列值计算完成之后执行指定的操作，通常是保存新的散列值，不需要替换或者计算失败时不会执行
+     *
+     * @param action
+     *            新的散列值的处理操作
+     * @return 操作执行完成的结果
+     */
+    public CompletableFuture<Void> whenUpgraded(Consumer<String> action) {
+        return upgradedHash.thenAccept(hash -> {
+            if (hash != null) {
+                action.accept(hash);
+            }
+        });
+    }
+
+    @Override
+    public String toString() {
+        return "BCryptVerification [matched=" + matched + ", rehashNeeded=" + rehashNeeded + "]";
+    }
+
+}
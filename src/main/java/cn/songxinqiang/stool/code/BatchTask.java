@@ -0,0 +1,103 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午1:40:52
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.code;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 批量计算摘要的任务，区间足够小时直接计算，否则拆分成两个子任务<br>
+ * 每个区间的计算只在一个线程中执行，可以在区间内重复使用同一个摘要计算实例
+ *
+ * @author 阿信sxq
+ *
+ */
+final class BatchTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 每个子任务最少处理的数据条数
+     */
+    private static final int MIN_SLICE = 256;
+
+    private final int from;
+    private final int to;
+    private final int slice;
+    private final Slice action;
+
+    private BatchTask(int from, int to, int slice, Slice action) {
+        this.from = from;
+        this.to = to;
+        this.slice = slice;
+        this.action = action;
+    }
+
+    /**
+     * 把区间{@code [0, size)}拆分后交给线程池执行，等待所有的计算完成后返回
+     *
+     * @param pool
+     *            执行计算的线程池
+     * @param size
+     *            数据的条数
+     * @param action
+     *            对一个区间的数据执行的计算
+     */
+    static void run(ForkJoinPool pool, int size, Slice action) {
+        if (size == 0) {
+            return;
+        }
+        int slice = Math.max(MIN_SLICE, size / (pool.getParallelism() * 4));
+        pool.invoke(new BatchTask(0, size, slice, action));
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= slice) {
+            action.run(from, to);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        invokeAll(new BatchTask(from, mid, slice, action), new BatchTask(mid, to, slice, action));
+    }
+
+    /**
+     * 批量计算时对一个区间的数据执行的计算
+     */
+    interface Slice {
+
+        /**
+         * 计算区间{@code [from, to)}内的数据
+         *
+         * @param from
+         *            开始位置(包含)
+         * @param to
+         *            结束位置(不包含)
+         */
+        void run(int from, int to);
+
+    }
+
+}
@@ -0,0 +1,145 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午2:36:18
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.code;
+
+import java.nio.ByteBuffer;
+
+/**
+ * CRC32C(Castagnoli)校验和的纯Java实现<br>
+ * JDK 8中没有{@code java.util.zip.CRC32C}，这里使用按8字节查表(slice-by-8)的方式计算。
+ * 结果是4字节，按照大端顺序输出，只能用于检测数据的意外损坏，不能用于安全相关的用途。<br>
+ * 测试用例：
+ *
+ * <pre>
+ * CRC32C ("123456789") = e3069283
+ * </pre>
+ *
+ * @author 阿信sxq
+ *
+ */
+public final class Crc32c implements Hasher {
+
+    /**
+     * 摘要结果的长度(字节数)
+     */
+    public static final int DIGEST_LENGTH = 4;
+
+    // reflected Castagnoli polynomial
+    private static final int POLY = 0x82F63B78;
+
+    // slice-by-8 tables, table k is at [256 * k, 256 * k + 256)
+    private static final int[] TABLE = new int[8 * 256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int crc = i;
+            for (int j = 0; j < 8; j++) {
+                crc = (crc >>> 1) ^ (POLY & -(crc & 1));
+            }
+            TABLE[i] = crc;
+        }
+        for (int i = 256; i < TABLE.length; i++) {
+            int prev = TABLE[i - 256];
+            TABLE[i] = (prev >>> 8) ^ TABLE[prev & 0xff];
+        }
+    }
+
+    private int crc = ~0;
+
+    @Override
+    public int digestLength() {
+        return DIGEST_LENGTH;
+    }
+
+    @Override
+    public void update(byte[] input, int off, int len) {
+        if (off < 0 || len < 0 || off > input.length - len) {
+            throw new IndexOutOfBoundsException();
+        }
+        int[] t = TABLE;
+        int c = crc;
+        int end = off + len;
+        for (int limit = end - 8; off <= limit; off += 8) {
+            int one = c ^ ((input[off] & 0xff) | ((input[off + 1] & 0xff) << 8)
+                    | ((input[off + 2] & 0xff) << 16) | (input[off + 3] << 24));
+            int two = (input[off + 4] & 0xff) | ((input[off + 5] & 0xff) << 8)
+                    | ((input[off + 6] & 0xff) << 16) | (input[off + 7] << 24);
+            c = t[0x700 | (one & 0xff)] ^ t[0x600 | ((one >>> 8) & 0xff)]
+                    ^ t[0x500 | ((one >>> 16) & 0xff)] ^ t[0x400 | (one >>> 24)]
+                    ^ t[0x300 | (two & 0xff)] ^ t[0x200 | ((two >>> 8) & 0xff)]
+                    ^ t[0x100 | ((two >>> 16) & 0xff)] ^ t[two >>> 24];
+        }
+        for (; off < end; off++) {
+            c = (c >>> 8) ^ t[(c ^ input[off]) & 0xff];
+        }
+        crc = c;
+    }
+
+    @Override
+    public void update(ByteBuffer input) {
+        if (input.hasArray()) {
+            int pos = input.position();
+            int len = input.remaining();
+            update(input.array(), input.arrayOffset() + pos, len);
+            input.position(pos + len);
+            return;
+        }
+        int[] t = TABLE;
+        int c = crc;
+        while (input.hasRemaining()) {
+            c = (c >>> 8) ^ t[(c ^ input.get()) & 0xff];
+        }
+        crc = c;
+    }
+
+    /**
+     * 完成计算并返回校验和，之后状态会被重置
+     *
+     * @return 校验和，取值范围是{@code [0, 2^32)}
+     */
+    public long getValue() {
+        long value = ~crc & 0xffffffffL;
+        reset();
+        return value;
+    }
+
+    @Override
+    public void digest(byte[] out, int off) {
+        if (off < 0 || off > out.length - DIGEST_LENGTH) {
+            throw new IndexOutOfBoundsException();
+        }
+        int value = (int) getValue();
+        out[off] = (byte) (value >>> 24);
+        out[off + 1] = (byte) (value >>> 16);
+        out[off + 2] = (byte) (value >>> 8);
+        out[off + 3] = (byte) value;
+    }
+
+    @Override
+    public void reset() {
+        crc = ~0;
+    }
+
+}
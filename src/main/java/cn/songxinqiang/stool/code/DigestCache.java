@@ -0,0 +1,256 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午3:31:26
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.code;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 摘要结果缓存，重复出现的输入直接返回缓存的结果，省去完整的摘要计算<br>
+ * 缓存按照键的哈希值分成多个段，每个段单独加锁，不同段之间的访问互不影响。每个段使用分段LRU(SLRU)淘汰：
+ * 新的结果先进入试用区，再次被访问时移入保护区，保护区满了之后最久没有访问的结果退回试用区，
+ * 试用区满了之后淘汰最久没有访问的结果，只出现过一次的输入不会把经常访问的结果挤出缓存。<br>
+ * 未命中时的摘要计算在段的锁内使用段自己的摘要计算实例完成，同一个段内的计算是串行的
+ *
+ * @author 阿信sxq
+ *
+ */
+public class DigestCache {
+
+    /**
+     * 保护区占每个段容量的比例
+     */
+    private static final double PROTECTED_RATIO = 0.8;
+
+    /**
+     * 每个段的最小容量，容量较小时会减少段的数量
+     */
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final int segmentShift;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * 创建MD5摘要结果缓存
+     *
+     * @param maximumSize
+     *            最多缓存的结果条数
+     */
+    public DigestCache(int maximumSize) {
+        this(maximumSize, Hashers::md5);
+    }
+
+    /**
+     * 创建摘要结果缓存
+     *
+     * @param maximumSize
+     *            最多缓存的结果条数
+     * @param factory
+     *            摘要计算实例的创建方法，每个段创建一个实例
+     */
+    public DigestCache(int maximumSize, Supplier<? extends Hasher> factory) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        int count = 1;
+        int limit = Math.min(Runtime.getRuntime().availableProcessors() * 4,
+                Math.max(1, maximumSize / MIN_SEGMENT_CAPACITY));
+        while (count < limit) {
+            count <<= 1;
+        }
+        segments = new Segment[count];
+        segmentMask = count - 1;
+        segmentShift = 32 - Integer.numberOfTrailingZeros(count);
+        for (int i = 0; i < count; i++) {
+            int capacity = maximumSize / count + (i < maximumSize % count ? 1 : 0);
+            segments[i] = new Segment(Math.max(1, capacity), factory.get());
+        }
+    }
+
+    /**
+     * 取得字符串的十六进制摘要，字符串使用{@code UTF-8}编码，缓存中没有时计算后放入缓存
+     *
+     * @param input
+     *            需要计算摘要的字符串
+     * @return 小写的十六进制摘要
+     */
+    public String getCode(String input) {
+        // the segment comes from the high bits of a mixed hash, HashMap buckets use the low bits
+        int h = input.hashCode() * 0x9E3779B9;
+        return segments[(h >>> segmentShift) & segmentMask].get(input);
+    }
+
+    /**
+     * 命中缓存的次数
+     *
+     * @return 命中次数
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * 没有命中缓存的次数，也就是实际计算摘要的次数
+     *
+     * @return 未命中次数
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 因为容量限制被淘汰的结果条数
+     *
+     * @return 淘汰条数
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * 命中率，还没有访问时返回{@code 0}
+     *
+     * @return 命中次数占访问次数的比例
+     */
+    public double hitRate() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 0.0 : (double) hit / total;
+    }
+
+    /**
+     * 当前缓存的结果条数
+     *
+     * @return 结果条数
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * 清空缓存，统计数据不会清零
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DigestCache [size=" + size() + ", hits=" + hitCount() + ", misses=" + missCount()
+                + ", evictions=" + evictionCount() + "]";
+    }
+
+    /**
+     * 缓存的一个段，所有操作都在段的锁内完成
+     *
+     * @author 阿信sxq
+     *
+     */
+    private final class Segment {
+
+        private final int probationCapacity;
+        private final int protectedCapacity;
+        private final LinkedHashMap<String, String> probation = new LinkedHashMap<>(16, 0.75f,
+                true);
+        private final LinkedHashMap<String, String> protect = new LinkedHashMap<>(16, 0.75f,
+                true);
+        private final Hasher hasher;
+
+        Segment(int capacity, Hasher hasher) {
+            this.protectedCapacity = (int) (capacity * PROTECTED_RATIO);
+            this.probationCapacity = capacity - protectedCapacity;
+            this.hasher = hasher;
+        }
+
+        synchronized String get(String key) {
+            String value = protect.get(key);
+            if (value != null) {
+                hits.increment();
+                return value;
+            }
+            value = probation.remove(key);
+            if (value != null) {
+                hits.increment();
+                promote(key, value);
+                return value;
+            }
+            misses.increment();
+            hasher.update(key);
+            value = hasher.digestHex();
+            probation.put(key, value);
+            evictProbation();
+            return value;
+        }
+
+        synchronized int size() {
+            return probation.size() + protect.size();
+        }
+
+        synchronized void clear() {
+            probation.clear();
+            protect.clear();
+        }
+
+        private void promote(String key, String value) {
+            if (protectedCapacity == 0) {
+                probation.put(key, value);
+                return;
+            }
+            protect.put(key, value);
+            if (protect.size() > protectedCapacity) {
+                Iterator<Map.Entry<String, String>> it = protect.entrySet().iterator();
+                Map.Entry<String, String> eldest = it.next();
+                it.remove();
+                probation.put(eldest.getKey(), eldest.getValue());
+                evictProbation();
+            }
+        }
+
+        private void evictProbation() {
+            if (probation.size() > probationCapacity) {
+                Iterator<String> it = probation.keySet().iterator();
+                it.next();
+                it.remove();
+                evictions.increment();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,399 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--上午11:02:15
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.code;
+
+/**
+ * 摘要结果的文本编码工具类，提供十六进制编码和bcrypt使用的base64编码<br>
+ * 编码都是查表完成的，结果直接写入到调用者提供的{@code char[]}、{@code byte[]}或者{@link StringBuilder}中，
+ * 不会产生中间对象。<br>
+ * <b>注意：</b>bcrypt使用的base64编码和标准的MIME-base64编码的字母表不同，两者不能混用
+ *
+ * @author 阿信sxq
+ *
+ */
+public final class EncodeUtil {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * 每个字节对应的两个十六进制字符，字节{@code b}的字符位于{@code [2 * b, 2 * b + 2)}
+     */
+    private static final char[] HEX_PAIRS = new char[512];
+
+    /**
+     * bcrypt的base64编码表
+     */
+    private static final char[] BCRYPT_BASE64_CODE = "./ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789"
+            .toCharArray();
+
+    /**
+     * 编码到字节数组时每次经过字符缓冲区的字节数，必须是3的倍数
+     */
+    private static final int BCRYPT_BASE64_CHUNK = 48;
+
+    /**
+     * bcrypt的base64解码表，不是编码字符的位置为{@code -1}
+     */
+    private static final byte[] BCRYPT_BASE64_INDEX = new byte[128];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            HEX_PAIRS[i << 1] = HEX_DIGITS[i >>> 4];
+            HEX_PAIRS[(i << 1) + 1] = HEX_DIGITS[i & 0x0f];
+        }
+        for (int i = 0; i < BCRYPT_BASE64_INDEX.length; i++) {
+            BCRYPT_BASE64_INDEX[i] = -1;
+        }
+        for (int i = 0; i < BCRYPT_BASE64_CODE.length; i++) {
+            BCRYPT_BASE64_INDEX[BCRYPT_BASE64_CODE[i]] = (byte) i;
+        }
+    }
+
+    private EncodeUtil() {
+    }
+
+    /**
+     * 将字节数组编码成小写的十六进制字符串
+     *
+     * @param src
+     *            需要编码的数据
+     * @return 编码结果，长度是数据长度的两倍
+     */
+    public static String toHex(byte[] src) {
+        char[] dst = new char[src.length << 1];
+        hex(src, 0, src.length, dst, 0);
+        return new String(dst);
+    }
+
+    /**
+     * 将数据编码成小写的十六进制字符写入到字符数组中
+     *
+     * @param src
+     *            需要编码的数据
+     * @param off
+     *            数据的开始位置
+     * @param len
+     *            数据的长度
+     * @param dst
+     *            保存结果的数组，需要有{@code 2 * len}的空间
+     * @param dstOff
+     *            结果在数组中的开始位置
+     */
+    public static void hex(byte[] src, int off, int len, char[] dst, int dstOff) {
+        for (int end = off + len; off < end; off++) {
+            int i = (src[off] & 0xff) << 1;
+            dst[dstOff++] = HEX_PAIRS[i];
+            dst[dstOff++] = HEX_PAIRS[i + 1];
+        }
+    }
+
+    /**
+     * 将数据编码成小写的十六进制字符，按照{@code ASCII}编码写入到字节数组中
+     *
+     * @param src
+     *            需要编码的数据
+     * @param off
+     *            数据的开始位置
+     * @param len
+     *            数据的长度
+     * @param dst
+     *            保存结果的数组，需要有{@code 2 * len}的空间
+     * @param dstOff
+     *            结果在数组中的开始位置
+     */
+    public static void hex(byte[] src, int off, int len, byte[] dst, int dstOff) {
+        for (int end = off + len; off < end; off++) {
+            int i = (src[off] & 0xff) << 1;
+            dst[dstOff++] = (byte) HEX_PAIRS[i];
+            dst[dstOff++] = (byte) HEX_PAIRS[i + 1];
+        }
+    }
+
+    /**
+     * 将数据编码成小写的十六进制字符追加到{@code sb}的末尾
+     *
+     * @param sb
+     *            追加结果的字符串构造器
+     * @param src
+     *            需要编码的数据
+     * @param off
+     *            数据的开始位置
+     * @param len
+     *            数据的长度
+     * @return 传入的{@code sb}
+     */
+    public static StringBuilder appendHex(StringBuilder sb, byte[] src, int off, int len) {
+        sb.ensureCapacity(sb.length() + (len << 1));
+        for (int end = off + len; off < end; off++) {
+            int i = (src[off] & 0xff) << 1;
+            sb.append(HEX_PAIRS[i]).append(HEX_PAIRS[i + 1]);
+        }
+        return sb;
+    }
+
+    /**
+     * 计算bcrypt的base64编码后的字符数，结尾不足的部分不做填充
+     *
+     * @param len
+     *            数据的长度
+     * @return 编码后的字符数
+     */
+    public static int bcryptBase64Length(int len) {
+        return (len * 4 + 2) / 3;
+    }
+
+    /**
+     * 将数据按照bcrypt的base64编码写入到字符数组中
+     *
+     * @param src
+     *            需要编码的数据
+     * @param off
+     *            数据的开始位置
+     * @param len
+     *            数据的长度
+     * @param dst
+     *            保存结果的数组，需要有{@linkplain #bcryptBase64Length(int)}的空间
+     * @param dstOff
+     *            结果在数组中的开始位置
+     * @return 写入的字符数
+     */
+    public static int bcryptBase64(byte[] src, int off, int len, char[] dst, int dstOff) {
+        int start = dstOff;
+        int end = off + len;
+        int c1, c2;
+        while (off < end) {
+            c1 = src[off++] & 0xff;
+            dst[dstOff++] = BCRYPT_BASE64_CODE[(c1 >> 2) & 0x3f];
+            c1 = (c1 & 0x03) << 4;
+            if (off >= end) {
+                dst[dstOff++] = BCRYPT_BASE64_CODE[c1 & 0x3f];
+                break;
+            }
+            c2 = src[off++] & 0xff;
+            c1 |= (c2 >> 4) & 0x0f;
+            dst[dstOff++] = BCRYPT_BASE64_CODE[c1 & 0x3f];
+            c1 = (c2 & 0x0f) << 2;
+            if (off >= end) {
+                dst[dstOff++] = BCRYPT_BASE64_CODE[c1 & 0x3f];
+                break;
+            }
+            c2 = src[off++] & 0xff;
+            c1 |= (c2 >> 6) & 0x03;
+            dst[dstOff++] = BCRYPT_BASE64_CODE[c1 & 0x3f];
+            dst[dstOff++] = BCRYPT_BASE64_CODE[c2 & 0x3f];
+        }
+        return dstOff - start;
+    }
+
+    /**
+     * 将数据按照bcrypt的base64编码，按照{@code ASCII}编码写入到字节数组中
+     *
+     * @param src
+     *            需要编码的数据
+     * @param off
+     *            数据的开始位置
+     * @param len
+     *            数据的长度
+     * @param dst
+     *            保存结果的数组，需要有{@linkplain #bcryptBase64Length(int)}的空间
+     * @param dstOff
+     *            结果在数组中的开始位置
+     * @return 写入的字节数
+     */
+    public static int bcryptBase64(byte[] src, int off, int len, byte[] dst, int dstOff) {
+        // encode whole 3 byte groups through a small char buffer, the encoding stays the same
+        char[] chars = new char[BCRYPT_BASE64_CHUNK / 3 * 4];
+        int start = dstOff;
+        int end = off + len;
+        while (off < end) {
+            int n = Math.min(BCRYPT_BASE64_CHUNK, end - off);
+            int count = bcryptBase64(src, off, n, chars, 0);
+            for (int i = 0; i < count; i++) {
+                dst[dstOff++] = (byte) chars[i];
+            }
+            off += n;
+        }
+        return dstOff - start;
+    }
+
+    /**
+     * 将数据按照bcrypt的base64编码追加到{@code sb}的末尾
+     *
+     * @param sb
+     *            追加结果的字符串构造器
+     * @param src
+     *            需要编码的数据
+     * @param off
+     *            数据的开始位置
+     * @param len
+     *            数据的长度
+     * @return 传入的{@code sb}
+     */
+    public static StringBuilder appendBcryptBase64(StringBuilder sb, byte[] src, int off,
+            int len) {
+        char[] chars = new char[bcryptBase64Length(len)];
+        sb.append(chars, 0, bcryptBase64(src, off, len, chars, 0));
+        return sb;
+    }
+
+    /**
+     * 解码bcrypt的base64编码的字符，遇到不是编码字符的位置或者解码出{@code maxLen}个字节时停止
+     *
+     * @param s
+     *            编码后的字符
+     * @param off
+     *            需要解码的字符的开始位置
+     * @param end
+     *            需要解码的字符的结束位置(不包含)
+     * @param dst
+     *            保存结果的数组
+     * @param dstOff
+     *            结果在数组中的开始位置
+     * @param maxLen
+     *            最多解码的字节数
+     * @return 解码得到的字节数
+     */
+    public static int decodeBcryptBase64(CharSequence s, int off, int end, byte[] dst,
+            int dstOff, int maxLen) {
+        int olen = 0;
+        int c1, c2, c3, c4;
+        while (off < end - 1 && olen < maxLen) {
+            c1 = bcryptBase64Index(s.charAt(off++));
+            c2 = bcryptBase64Index(s.charAt(off++));
+            if (c1 == -1 || c2 == -1) {
+                break;
+            }
+            dst[dstOff + olen] = (byte) ((c1 << 2) | ((c2 & 0x30) >> 4));
+            if (++olen >= maxLen || off >= end) {
+                break;
+            }
+            c3 = bcryptBase64Index(s.charAt(off++));
+            if (c3 == -1) {
+                break;
+            }
+            dst[dstOff + olen] = (byte) (((c2 & 0x0f) << 4) | ((c3 & 0x3c) >> 2));
+            if (++olen >= maxLen || off >= end) {
+                break;
+            }
+            c4 = bcryptBase64Index(s.charAt(off++));
+            dst[dstOff + olen] = (byte) (((c3 & 0x03) << 6) | c4);
+            ++olen;
+        }
+        return olen;
+    }
+
+    /**
+     * 把字符序列按照{@code UTF-8}编码写入数组，不成对的代理字符写成{@code '?'}，结果和
+     * {@code String.getBytes(StandardCharsets.UTF_8)}一致，但是不会创建新的数组
+     *
+     * @param s
+     *            字符序列
+     * @param dst
+     *            保存结果的数组，从{@code dstOff}开始至少需要{@code s.length() * 3}字节的空间
+     * @param dstOff
+     *            结果在数组中的开始位置
+     * @return 写入的字节数
+     */
+    public static int encodeUtf8(CharSequence s, byte[] dst, int dstOff) {
+        return encodeUtf8(s, 0, s.length(), dst, dstOff);
+    }
+
+    /**
+     * 把字符序列中的一段按照{@code UTF-8}编码写入数组，段结尾处不完整的代理对写成{@code '?'}
+     *
+     * @param s
+     *            字符序列
+     * @param off
+     *            需要编码的字符的开始位置
+     * @param end
+     *            需要编码的字符的结束位置(不包含)
+     * @param dst
+     *            保存结果的数组，从{@code dstOff}开始至少需要{@code (end - off) * 3}字节的空间
+     * @param dstOff
+     *            结果在数组中的开始位置
+     * @return 写入的字节数
+     * @see #encodeUtf8(CharSequence, byte[], int)
+     */
+    public static int encodeUtf8(CharSequence s, int off, int end, byte[] dst, int dstOff) {
+        int pos = dstOff;
+        for (int i = off, len = end; i < len; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                dst[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                dst[pos++] = (byte) (0xc0 | (c >> 6));
+                dst[pos++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isSurrogate(c)) {
+                char low;
+                if (Character.isHighSurrogate(c) && i + 1 < len
+                        && Character.isLowSurrogate(low = s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, low);
+                    dst[pos++] = (byte) (0xf0 | (cp >> 18));
+                    dst[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                    dst[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                    dst[pos++] = (byte) (0x80 | (cp & 0x3f));
+                    i++;
+                } else {
+                    dst[pos++] = '?';
+                }
+            } else {
+                dst[pos++] = (byte) (0xe0 | (c >> 12));
+                dst[pos++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                dst[pos++] = (byte) (0x80 | (c & 0x3f));
+            }
+        }
+        return pos - dstOff;
+    }
+
+    /**
+     * 检查bcrypt的base64编码的字符是否是规范的编码，也就是最后一个字符中没有用到的低位都是{@code 0}，
+     * 规范的编码和解码后重新编码的结果完全相同
+     *
+     * @param s
+     *            编码后的字符
+     * @param off
+     *            需要检查的字符的开始位置
+     * @param end
+     *            需要检查的字符的结束位置(不包含)
+     * @return 是规范的编码时返回{@code true}
+     */
+    public static boolean isCanonicalBcryptBase64(CharSequence s, int off, int end) {
+        int tail = (end - off) & 3;
+        if (tail == 1) {
+            return false;
+        }
+        if (tail == 0) {
+            return true;
+        }
+        int last = bcryptBase64Index(s.charAt(end - 1));
+        // 2 chars carry 1 byte, 3 chars carry 2 bytes
+        return last >= 0 && (last & (tail == 2 ? 0x0f : 0x03)) == 0;
+    }
+
+    private static int bcryptBase64Index(char c) {
+        return c < BCRYPT_BASE64_INDEX.length ? BCRYPT_BASE64_INDEX[c] : -1;
+    }
+
+}
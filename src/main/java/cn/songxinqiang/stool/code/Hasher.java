@@ -0,0 +1,120 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午1:25:09
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.code;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 流式摘要计算的统一接口<br>
+ * 数据可以分多次调用{@code update}输入，最后调用{@linkplain #digest(byte[], int)}取得结果，取得结果之后状态会被重置，
+ * 同一个实例可以继续计算下一条数据。不同的实现在速度和抗碰撞能力上各有取舍，通过{@linkplain Hashers}创建，
+ * 批量计算使用{@linkplain Hashers#hashAll(java.util.function.Supplier, java.util.List)}<br>
+ * <b>注意：</b>实现中保存有计算过程的状态，不是线程安全的
+ *
+ * @author 阿信sxq
+ *
+ * @see Hashers
+ */
+public interface Hasher {
+
+    /**
+     * 摘要结果的长度
+     *
+     * @return 摘要结果的字节数
+     */
+    int digestLength();
+
+    /**
+     * 输入需要计算摘要的数据
+     *
+     * @param input
+     *            数据
+     * @param off
+     *            数据在数组中的开始位置
+     * @param len
+     *            数据的长度
+     * @throws IndexOutOfBoundsException
+     *             给出的位置和长度超出了数组的范围
+     */
+    void update(byte[] input, int off, int len);
+
+    /**
+     * 输入缓冲区中剩余的所有数据，调用后缓冲区的位置会移动到限制处
+     *
+     * @param input
+     *            数据缓冲区
+     */
+    void update(ByteBuffer input);
+
+    /**
+     * 输入字符序列，字符按照{@code UTF-8}编码
+     *
+     * @param input
+     *            字符序列
+     */
+    default void update(CharSequence input) {
+        byte[] bytes = input.toString().getBytes(StandardCharsets.UTF_8);
+        update(bytes, 0, bytes.length);
+    }
+
+    /**
+     * 完成摘要的计算，将结果写入到给定的数组中，之后状态会被重置
+     *
+     * @param out
+     *            保存结果的数组
+     * @param off
+     *            结果在数组中的开始位置
+     * @throws IndexOutOfBoundsException
+     *             数组中没有足够的空间保存结果
+     */
+    void digest(byte[] out, int off);
+
+    /**
+     * 完成摘要的计算并返回结果，之后状态会被重置
+     *
+     * @return 摘要结果
+     */
+    default byte[] digest() {
+        byte[] out = new byte[digestLength()];
+        digest(out, 0);
+        return out;
+    }
+
+    /**
+     * 完成摘要的计算并返回十六进制表示的结果，之后状态会被重置
+     *
+     * @return 小写的十六进制字符串
+     */
+    default String digestHex() {
+        return EncodeUtil.toHex(digest());
+    }
+
+    /**
+     * 重置摘要计算的状态，丢弃之前输入的所有数据
+     */
+    void reset();
+
+}
@@ -0,0 +1,197 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午2:58:03
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.code;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 摘要计算实例的创建和批量计算工具类<br>
+ * 调用方只依赖{@link Hasher}接口，通过更换这里的工厂方法就可以在速度和抗碰撞能力之间取舍：
+ * <ul>
+ * <li>{@linkplain #xxHash64()}、{@linkplain #crc32c()}：非加密哈希，速度最快，用于缓存键、分片等场景</li>
+ * <li>{@linkplain #md5()}、{@linkplain #sha1()}：兼容旧数据使用，不应该再用于安全相关的场景</li>
+ * <li>{@linkplain #sha256()}：加密哈希，抗碰撞</li>
+ * </ul>
+ *
+ * @author 阿信sxq
+ *
+ */
+public final class Hashers {
+
+    private Hashers() {
+    }
+
+    /**
+     * 创建MD5摘要计算实例
+     *
+     * @return 摘要计算实例
+     * @see MD5Code
+     */
+    public static Hasher md5() {
+        return new MD5Code();
+    }
+
+    /**
+     * 创建SHA-1摘要计算实例
+     *
+     * @return 摘要计算实例
+     * @see MessageDigestHasher
+     */
+    public static Hasher sha1() {
+        return MessageDigestHasher.of("SHA-1");
+    }
+
+    /**
+     * 创建SHA-256摘要计算实例
+     *
+     * @return 摘要计算实例
+     * @see MessageDigestHasher
+     */
+    public static Hasher sha256() {
+        return MessageDigestHasher.of("SHA-256");
+    }
+
+    /**
+     * 创建种子为{@code 0}的xxHash64计算实例
+     *
+     * @return 摘要计算实例
+     * @see XxHash64
+     */
+    public static Hasher xxHash64() {
+        return new XxHash64();
+    }
+
+    /**
+     * 创建使用指定种子的xxHash64计算实例
+     *
+     * @param seed
+     *            种子
+     * @return 摘要计算实例
+     * @see XxHash64
+     */
+    public static Hasher xxHash64(long seed) {
+        return new XxHash64(seed);
+    }
+
+    /**
+     * 创建CRC32C校验和计算实例
+     *
+     * @return 摘要计算实例
+     * @see Crc32c
+     */
+    public static Hasher crc32c() {
+        return new Crc32c();
+    }
+
+    /**
+     * 批量计算摘要，使用{@linkplain ForkJoinPool#commonPool()}并行计算，等价于
+     * {@code hashAll(factory, inputs, ForkJoinPool.commonPool())}
+     *
+     * @param factory
+     *            摘要计算实例的创建方法，例如{@code Hashers::sha256}
+     * @param inputs
+     *            需要计算摘要的数据
+     * @return 按照输入的顺序依次排列的摘要结果
+     * @see #hashAll(Supplier, List, ForkJoinPool)
+     */
+    public static byte[] hashAll(Supplier<? extends Hasher> factory, List<byte[]> inputs) {
+        return hashAll(factory, inputs, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 批量计算摘要，数据被拆分成多个区间交给线程池并行计算，每个区间只创建一个摘要计算实例
+     *
+     * @param factory
+     *            摘要计算实例的创建方法，例如{@code Hashers::sha256}
+     * @param inputs
+     *            需要计算摘要的数据
+     * @param pool
+     *            执行计算的线程池
+     * @return 按照输入的顺序依次排列的摘要结果，每条摘要的长度是{@linkplain Hasher#digestLength()}，
+     *         第{@code i}条数据的摘要位于{@code [i * digestLength, (i + 1) * digestLength)}
+     */
+    public static byte[] hashAll(Supplier<? extends Hasher> factory, List<byte[]> inputs,
+            ForkJoinPool pool) {
+        byte[][] data = inputs.toArray(new byte[inputs.size()][]);
+        // the instance that tells the length also computes the first slice
+        Hasher first = factory.get();
+        int length = first.digestLength();
+        byte[] out = new byte[data.length * length];
+        BatchTask.run(pool, data.length, (from, to) -> {
+            Hasher hasher = from == 0 ? first : factory.get();
+            for (int i = from; i < to; i++) {
+                hasher.update(data[i], 0, data[i].length);
+                hasher.digest(out, i * length);
+            }
+        });
+        return out;
+    }
+
+    /**
+     * 批量计算字符串的十六进制摘要，使用{@linkplain ForkJoinPool#commonPool()}并行计算，等价于
+     * {@code hashAll(factory, inputs, ForkJoinPool.commonPool())}
+     *
+     * @param factory
+     *            摘要计算实例的创建方法，例如{@code Hashers::sha256}
+     * @param inputs
+     *            需要计算摘要的字符串
+     * @return 按照输入的顺序依次排列的十六进制摘要
+     * @see #hashAll(Supplier, Stream, ForkJoinPool)
+     */
+    public static List<String> hashAll(Supplier<? extends Hasher> factory,
+            Stream<String> inputs) {
+        return hashAll(factory, inputs, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 批量计算字符串的十六进制摘要，字符串使用{@code UTF-8}编码
+     *
+     * @param factory
+     *            摘要计算实例的创建方法，例如{@code Hashers::sha256}
+     * @param inputs
+     *            需要计算摘要的字符串
+     * @param pool
+     *            执行计算的线程池
+     * @return 按照输入的顺序依次排列的十六进制摘要
+     */
+    public static List<String> hashAll(Supplier<? extends Hasher> factory,
+            Stream<String> inputs, ForkJoinPool pool) {
+        String[] data = inputs.toArray(String[]::new);
+        String[] out = new String[data.length];
+        BatchTask.run(pool, data.length, (from, to) -> {
+            Hasher hasher = factory.get();
+            for (int i = from; i < to; i++) {
+                hasher.update(data[i]);
+                out[i] = hasher.digestHex();
+            }
+        });
+        return Arrays.asList(out);
+    }
+
+}
@@ -0,0 +1,108 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午4:05:48
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.code;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * 无锁的实例池，用于在多个线程之间复用有状态的计算实例<br>
+ * 实例保存在固定数量的槽位中，线程按照自己的编号从对应的槽位开始取用和归还，不同线程大多落在不同的槽位上，
+ * 取用和归还都只是一次CAS操作。槽位都被占用时直接创建新的实例，归还时没有空的槽位就丢弃实例，所以不会阻塞。<br>
+ * 和{@link ThreadLocal}不同，实例不和线程绑定，线程数量很多(例如虚拟线程)时也只保留固定数量的实例，
+ * 在Web容器中也不会因为线程池中的线程持有实例而造成类加载器泄漏
+ *
+ * @author 阿信sxq
+ *
+ * @param <T>
+ *            实例类型
+ */
+final class InstancePool<T> {
+
+    /**
+     * 取用和归还时最多尝试的槽位数
+     */
+    private static final int PROBES = 4;
+
+    private final AtomicReferenceArray<T> slots;
+    private final int mask;
+    private final Supplier<? extends T> factory;
+
+    /**
+     * 创建实例池，槽位数是不小于处理器数两倍的2的幂
+     *
+     * @param factory
+     *            实例的创建方法
+     */
+    InstancePool(Supplier<? extends T> factory) {
+        int size = 1;
+        while (size < Runtime.getRuntime().availableProcessors() * 2) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.factory = factory;
+    }
+
+    /**
+     * 取用一个实例，用完之后需要调用{@linkplain #release(Object)}归还
+     *
+     * @return 实例
+     */
+    T acquire() {
+        int start = probe();
+        for (int i = 0; i < PROBES; i++) {
+            int index = (start + i) & mask;
+            T instance = slots.get(index);
+            if (instance != null && slots.compareAndSet(index, instance, null)) {
+                return instance;
+            }
+        }
+        return factory.get();
+    }
+
+    /**
+     * 归还实例
+     *
+     * @param instance
+     *            通过{@linkplain #acquire()}取得的实例
+     */
+    void release(T instance) {
+        int start = probe();
+        for (int i = 0; i < PROBES; i++) {
+            int index = (start + i) & mask;
+            if (slots.get(index) == null && slots.compareAndSet(index, null, instance)) {
+                return;
+            }
+        }
+    }
+
+    private int probe() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+}
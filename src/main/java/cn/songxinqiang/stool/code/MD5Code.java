@@ -24,6 +24,25 @@
  */
 package cn.songxinqiang.stool.code;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
 /**
  * 生成md5密码工具类
  * 
@@ -40,6 +59,13 @@ package cn.songxinqiang.stool.code;
  * MD5 ("12345678901234567890123456789012345678901234567890123456789012345678901234567890") = 57edf4a22be3c955ac49da2e2107b67a
  * </pre>
  *
+ * 除了{@linkplain #getCode(String)}之外，也可以按照流的方式分多次调用{@linkplain #update(byte[], int, int)}
+ * 输入数据，最后调用{@linkplain #digest(byte[], int)}取得摘要结果。内部状态和缓冲区都在创建实例时分配好，
+ * 重复使用同一个实例计算摘要时不会再产生新的对象。<br>
+ * <b>注意：</b>实例中保存有计算过程的状态，不是线程安全的，多个线程之间不能共享同一个实例。
+ * 需要在多个线程中计算时使用静态方法{@linkplain #hex(CharSequence)}、{@linkplain #raw(byte[])}等，
+ * 这些方法从无锁的实例池中取用实例，不需要加锁，除了结果之外也不会创建新的对象
+ *
  * <p>
  * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
  * </p>
@@ -47,231 +73,743 @@ package cn.songxinqiang.stool.code;
  * @author 阿信sxq-2016年1月6日
  *
  */
-public class MD5Code {
-
-    private static final int S11 = 7;
-    private static final int S12 = 12;
-    private static final int S13 = 17;
-    private static final int S14 = 22;
-    private static final int S21 = 5;
-    private static final int S22 = 9;
-    private static final int S23 = 14;
-    private static final int S24 = 20;
-    private static final int S31 = 4;
-    private static final int S32 = 11;
-    private static final int S33 = 16;
-    private static final int S34 = 23;
-    private static final int S41 = 6;
-    private static final int S42 = 10;
-    private static final int S43 = 15;
-    private static final int S44 = 21;
-    private static final byte[] PADDING = { -128, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
-            0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
-            0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+public class MD5Code implements Hasher {
+
+    /**
+     * 摘要结果的长度(字节数)
+     */
+    public static final int DIGEST_LENGTH = 16;
+
+    private static final int BLOCK_LENGTH = 64;
+
+    /**
+     * 计算文件摘要时每次映射到内存的窗口大小，是{@linkplain #BLOCK_LENGTH}的整数倍
+     */
+    private static final long MAP_WINDOW = 64L << 20;
+
+    static final int S11 = 7;
+    static final int S12 = 12;
+    static final int S13 = 17;
+    static final int S14 = 22;
+    static final int S21 = 5;
+    static final int S22 = 9;
+    static final int S23 = 14;
+    static final int S24 = 20;
+    static final int S31 = 4;
+    static final int S32 = 11;
+    static final int S33 = 16;
+    static final int S34 = 23;
+    static final int S41 = 6;
+    static final int S42 = 10;
+    static final int S43 = 15;
+    static final int S44 = 21;
 
     // state (ABCD)
-    private long[] state = new long[4];
-    // number of bits, modulo 2^64 (lsb first)
-    private long[] count = new long[2];
+    private final int[] state = new int[4];
+    // number of bytes, modulo 2^64
+    private long count;
     // input buffer
-    private byte[] buffer = new byte[64];
+    private final byte[] buffer = new byte[BLOCK_LENGTH];
+    // decoded block
+    private final int[] x = new int[16];
 
-    private byte[] digest = new byte[16];
+    private final byte[] digest = new byte[DIGEST_LENGTH];
+
+    private final char[] hex = new char[DIGEST_LENGTH * 2];
 
     /**
-     * 根据给出的字符串，生成MD5加密字符串，
+     * 静态方法使用的实例池
+     */
+    private static final InstancePool<MD5Code> POOL = new InstancePool<>(MD5Code::new);
+
+    // encoder and output buffer for charsets other than UTF-8, created on demand
+    private CharsetEncoder encoder;
+    private ByteBuffer encoded;
+
+    /**
+     * 根据给出的字符串，生成MD5加密字符串，字符串使用{@code UTF-8}编码
      * 
      * @author 阿信sxq-2016年1月6日
      * 
      * @param inStr
      *            需要加密的字符串
      * @return 加密后的字符串，总是32位长度
+     * @see #getCode(CharSequence)
      */
     public String getCode(String inStr) {
-        keyBeanInit();
-        keyBeanUpdate(inStr.getBytes(), inStr.length());
-        keyBeanFinal();
-        StringBuilder sb = new StringBuilder();
-        for (byte b : digest) {
-            sb.append(byteHEX(b));
-        }
-        return sb.toString();
+        return getCode((CharSequence) inStr);
+    }
+
+    /**
+     * 根据给出的字符序列，生成MD5加密字符串，字符序列使用{@code UTF-8}编码，
+     * 编码的结果直接写入到内部的缓冲区，不会产生中间的字符串或者字节数组
+     * 
+     * @param input
+     *            需要加密的字符序列
+     * @return 加密后的字符串，总是32位长度
+     */
+    public String getCode(CharSequence input) {
+        reset();
+        update(input);
+        digest(digest, 0);
+        return toHex(digest);
+    }
+
+    /**
+     * 根据给出的字符串，按照指定的字符集编码后生成MD5加密字符串
+     * 
+     * @param inStr
+     *            需要加密的字符串
+     * @param charset
+     *            字符串编码使用的字符集
+     * @return 加密后的字符串，总是32位长度
+     */
+    public String getCode(String inStr, Charset charset) {
+        reset();
+        update(inStr, charset);
+        digest(digest, 0);
+        return toHex(digest);
+    }
+
+    /**
+     * 根据给出的字节数组，生成MD5加密字符串
+     * 
+     * @param input
+     *            需要加密的数据
+     * @return 加密后的字符串，总是32位长度
+     */
+    public String getCode(byte[] input) {
+        reset();
+        update(input, 0, input.length);
+        digest(digest, 0);
+        return toHex(digest);
     }
 
     public MD5Code() {
-        keyBeanInit();
+        reset();
     }
 
-    private void keyBeanInit() {
-        count[0] = 0L;
-        count[1] = 0L;
-        state[0] = 0x67452301L;
-        state[1] = 0xefcdab89L;
-        state[2] = 0x98badcfeL;
-        state[3] = 0x10325476L;
+    /**
+     * 计算字符序列的MD5加密字符串，字符序列使用{@code UTF-8}编码，可以在多个线程中同时调用
+     * 
+     * @param input
+     *            需要加密的字符序列
+     * @return 加密后的字符串，总是32位长度
+     * @see #getCode(CharSequence)
+     */
+    public static String hex(CharSequence input) {
+        MD5Code md5 = POOL.acquire();
+        try {
+            return md5.getCode(input);
+        } finally {
+            POOL.release(md5);
+        }
     }
 
-    private long F(long x, long y, long z) {
-        return (x & y) | ((~x) & z);
+    /**
+     * 计算数据的MD5加密字符串，可以在多个线程中同时调用
+     * 
+     * @param input
+     *            需要加密的数据
+     * @return 加密后的字符串，总是32位长度
+     */
+    public static String hex(byte[] input) {
+        return hex(input, 0, input.length);
     }
 
-    private long G(long x, long y, long z) {
-        return (x & z) | (y & (~z));
+    /**
+     * 计算数据的MD5加密字符串，可以在多个线程中同时调用
+     * 
+     * @param input
+     *            需要加密的数据
+     * @param off
+     *            数据在数组中的开始位置
+     * @param len
+     *            数据的长度
+     * @return 加密后的字符串，总是32位长度
+     */
+    public static String hex(byte[] input, int off, int len) {
+        MD5Code md5 = POOL.acquire();
+        try {
+            md5.reset();
+            md5.update(input, off, len);
+            return md5.digestHex();
+        } finally {
+            POOL.release(md5);
+        }
     }
 
-    private long H(long x, long y, long z) {
-        return x ^ y ^ z;
+    /**
+     * 计算字符序列的MD5摘要，字符序列使用{@code UTF-8}编码，可以在多个线程中同时调用
+     * 
+     * @param input
+     *            需要计算摘要的字符序列
+     * @return 16字节的摘要结果
+     */
+    public static byte[] raw(CharSequence input) {
+        MD5Code md5 = POOL.acquire();
+        try {
+            md5.reset();
+            md5.update(input);
+            return md5.digest();
+        } finally {
+            POOL.release(md5);
+        }
     }
 
-    private long I(long x, long y, long z) {
-        return y ^ (x | (~z));
+    /**
+     * 计算数据的MD5摘要，可以在多个线程中同时调用
+     * 
+     * @param input
+     *            需要计算摘要的数据
+     * @return 16字节的摘要结果
+     */
+    public static byte[] raw(byte[] input) {
+        return raw(input, 0, input.length);
     }
 
-    private long FF(long a, long b, long c, long d, long x, long s, long ac) {
-        a += F(b, c, d) + x + ac;
-        a = ((int) a << s) | ((int) a >>> (32 - s));
-        a += b;
-        return a;
+    /**
+     * 计算数据的MD5摘要，可以在多个线程中同时调用
+     * 
+     * @param input
+     *            需要计算摘要的数据
+     * @param off
+     *            数据在数组中的开始位置
+     * @param len
+     *            数据的长度
+     * @return 16字节的摘要结果
+     */
+    public static byte[] raw(byte[] input, int off, int len) {
+        MD5Code md5 = POOL.acquire();
+        try {
+            md5.reset();
+            md5.update(input, off, len);
+            return md5.digest();
+        } finally {
+            POOL.release(md5);
+        }
     }
 
-    private long GG(long a, long b, long c, long d, long x, long s, long ac) {
-        a += G(b, c, d) + x + ac;
-        a = ((int) a << s) | ((int) a >>> (32 - s));
-        a += b;
-        return a;
+    /**
+     * 批量计算摘要，使用{@linkplain ForkJoinPool#commonPool()}并行计算，等价于
+     * {@code hashAll(inputs, ForkJoinPool.commonPool())}
+     * 
+     * @param inputs
+     *            需要计算摘要的数据
+     * @return 按照输入的顺序依次排列的摘要结果，第{@code i}条数据的摘要位于{@code [16 * i, 16 * i + 16)}
+     * @see #hashAll(List, ForkJoinPool)
+     */
+    public static byte[] hashAll(List<byte[]> inputs) {
+        return hashAll(inputs, ForkJoinPool.commonPool());
     }
 
-    private long HH(long a, long b, long c, long d, long x, long s, long ac) {
-        a += H(b, c, d) + x + ac;
-        a = ((int) a << s) | ((int) a >>> (32 - s));
-        a += b;
-        return a;
+    /**
+     * 批量计算摘要，数据被拆分成多个区间交给线程池并行计算，每个区间只使用一个摘要计算实例
+     * 
+     * @param inputs
+     *            需要计算摘要的数据
+     * @param pool
+     *            执行计算的线程池
+     * @return 按照输入的顺序依次排列的摘要结果，第{@code i}条数据的摘要位于{@code [16 * i, 16 * i + 16)}
+     */
+    public static byte[] hashAll(List<byte[]> inputs, ForkJoinPool pool) {
+        byte[][] data = inputs.toArray(new byte[inputs.size()][]);
+        byte[] out = new byte[data.length * DIGEST_LENGTH];
+        BatchTask.run(pool, data.length,
+                (from, to) -> new MD5Lanes().digestAll(data, from, to, out, 0, new MD5Code()));
+        return out;
     }
 
-    private long II(long a, long b, long c, long d, long x, long s, long ac) {
-        a += I(b, c, d) + x + ac;
-        a = ((int) a << s) | ((int) a >>> (32 - s));
-        a += b;
-        return a;
+    /**
+     * 在当前线程中批量计算摘要，长度不超过55字节的短消息会每两条一组交错计算，比逐条计算更快，
+     * 其余的消息逐条计算，结果和逐条计算完全相同
+     * 
+     * @param inputs
+     *            需要计算摘要的数据
+     * @param out
+     *            保存结果的数组，第{@code i}条数据的摘要位于{@code [off + 16 * i, off + 16 * i + 16)}
+     * @param off
+     *            结果在数组中的开始位置
+     * @throws IndexOutOfBoundsException
+     *             数组中没有足够的空间保存结果
+     */
+    public static void digestAll(byte[][] inputs, byte[] out, int off) {
+        if (off < 0 || off > out.length - inputs.length * DIGEST_LENGTH) {
+            throw new IndexOutOfBoundsException();
+        }
+        new MD5Lanes().digestAll(inputs, 0, inputs.length, out, off, new MD5Code());
+    }
+
+    /**
+     * 批量计算字符串的MD5加密字符串，使用{@linkplain ForkJoinPool#commonPool()}并行计算，等价于
+     * {@code hashAll(inputs, ForkJoinPool.commonPool())}
+     * 
+     * @param inputs
+     *            需要加密的字符串
+     * @return 按照输入的顺序依次排列的加密字符串
+     * @see #hashAll(Stream, ForkJoinPool)
+     */
+    public static List<String> hashAll(Stream<String> inputs) {
+        return hashAll(inputs, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 批量计算字符串的MD5加密字符串，字符串使用{@code UTF-8}编码，结果和逐个调用{@linkplain #getCode(String)}相同
+     * 
+     * @param inputs
+     *            需要加密的字符串
+     * @param pool
+     *            执行计算的线程池
+     * @return 按照输入的顺序依次排列的加密字符串
+     */
+    public static List<String> hashAll(Stream<String> inputs, ForkJoinPool pool) {
+        String[] data = inputs.toArray(String[]::new);
+        String[] out = new String[data.length];
+        BatchTask.run(pool, data.length, (from, to) -> {
+            MD5Code md5 = new MD5Code();
+            for (int i = from; i < to; i++) {
+                out[i] = md5.getCode(data[i]);
+            }
+        });
+        return Arrays.asList(out);
+    }
+
+    @Override
+    public int digestLength() {
+        return DIGEST_LENGTH;
+    }
+
+    /**
+     * 重置摘要计算的状态，丢弃之前输入的所有数据
+     */
+    @Override
+    public void reset() {
+        count = 0L;
+        state[0] = 0x67452301;
+        state[1] = 0xefcdab89;
+        state[2] = 0x98badcfe;
+        state[3] = 0x10325476;
     }
 
-    private void keyBeanUpdate(byte[] inbuf, int inputLen) {
-        int i, index, partLen;
-        byte[] block = new byte[64];
-        index = (int) (count[0] >>> 3) & 0x3F;
-        if ((count[0] += (inputLen << 3)) < (inputLen << 3)) {
-            count[1]++;
+    /**
+     * 输入需要计算摘要的数据，可以多次调用，数据会按照调用的顺序连接起来计算摘要
+     * 
+     * @param input
+     *            数据
+     * @param off
+     *            数据在数组中的开始位置
+     * @param len
+     *            数据的长度
+     * @throws IndexOutOfBoundsException
+     *             给出的位置和长度超出了数组的范围
+     */
+    @Override
+    public void update(byte[] input, int off, int len) {
+        if (off < 0 || len < 0 || off > input.length - len) {
+            throw new IndexOutOfBoundsException();
+        }
+        int index = (int) count & 0x3f;
+        count += len;
+        if (index > 0) {
+            int partLen = BLOCK_LENGTH - index;
+            if (len < partLen) {
+                System.arraycopy(input, off, buffer, index, len);
+                return;
+            }
+            System.arraycopy(input, off, buffer, index, partLen);
+            decode(buffer, 0);
+            transform();
+            off += partLen;
+            len -= partLen;
+        }
+        for (; len >= BLOCK_LENGTH; off += BLOCK_LENGTH, len -= BLOCK_LENGTH) {
+            decode(input, off);
+            transform();
+        }
+        if (len > 0) {
+            System.arraycopy(input, off, buffer, 0, len);
+        }
+    }
+
+    /**
+     * 输入缓冲区中剩余的所有数据，调用后缓冲区的位置会移动到限制处
+     * 
+     * @param input
+     *            数据缓冲区，可以是直接缓冲区
+     * @see #update(byte[], int, int)
+     */
+    @Override
+    public void update(ByteBuffer input) {
+        int pos = input.position();
+        int len = input.remaining();
+        if (input.hasArray()) {
+            update(input.array(), input.arrayOffset() + pos, len);
+            input.position(pos + len);
+            return;
         }
-        count[1] += (inputLen >>> 29);
-        partLen = 64 - index;
-        if (inputLen >= partLen) {
-            keyBeanMemcpy(buffer, inbuf, index, 0, partLen);
-            keyBeanTransform(buffer);
-            for (i = partLen; i + 63 < inputLen; i += 64) {
-                keyBeanMemcpy(block, inbuf, 0, i, 64);
-                keyBeanTransform(block);
+        int index = (int) count & 0x3f;
+        count += len;
+        if (index > 0) {
+            int partLen = BLOCK_LENGTH - index;
+            if (len < partLen) {
+                input.get(buffer, index, len);
+                return;
             }
+            input.get(buffer, index, partLen);
+            decode(buffer, 0);
+            transform();
+            pos += partLen;
+            len -= partLen;
+        }
+        boolean littleEndian = input.order() == ByteOrder.LITTLE_ENDIAN;
+        for (; len >= BLOCK_LENGTH; pos += BLOCK_LENGTH, len -= BLOCK_LENGTH) {
+            decode(input, pos, littleEndian);
+            transform();
+        }
+        input.position(pos);
+        if (len > 0) {
+            input.get(buffer, 0, len);
+        }
+    }
+
+    /**
+     * 计算文件内容的摘要，等价于{@code digestFile(file, null)}
+     * 
+     * @param file
+     *            文件路径
+     * @return 16字节的摘要结果
+     * @throws IOException
+     *             读取文件出错
+     * @see #digestFile(Path, ProgressListener)
+     */
+    public byte[] digestFile(Path file) throws IOException {
+        return digestFile(file, null);
+    }
+
+    /**
+     * 计算文件内容的摘要，文件按窗口映射到内存后逐块计算，占用的堆内存不会随着文件大小增长
+     * 
+     * @param file
+     *            文件路径
+     * @param listener
+     *            进度监听器，每处理完一个窗口会通知一次，可以为{@code null}
+     * @return 16字节的摘要结果
+     * @throws IOException
+     *             读取文件出错
+     * @see #digestChannel(FileChannel, ProgressListener)
+     */
+    public byte[] digestFile(Path file, ProgressListener listener) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return digestChannel(channel, listener);
+        }
+    }
+
+    /**
+     * 计算文件通道中从当前位置到文件末尾的内容的摘要，等价于{@code digestChannel(channel, null)}
+     * 
+     * @param channel
+     *            文件通道
+     * @return 16字节的摘要结果
+     * @throws IOException
+     *             读取文件出错
+     * @see #digestChannel(FileChannel, ProgressListener)
+     */
+    public byte[] digestChannel(FileChannel channel) throws IOException {
+        return digestChannel(channel, null);
+    }
+
+    /**
+     * 计算文件通道中从当前位置到文件末尾的内容的摘要，之前输入的数据会被丢弃，计算完成后通道的位置会移动到文件末尾。<br>
+     * 文件内容按照{@linkplain #MAP_WINDOW}大小的窗口依次映射到内存，映射的内容直接参与计算，不会复制到堆中
+     * 
+     * @param channel
+     *            文件通道，不会被关闭
+     * @param listener
+     *            进度监听器，每处理完一个窗口会通知一次，可以为{@code null}
+     * @return 16字节的摘要结果
+     * @throws IOException
+     *             读取文件出错
+     */
+    public byte[] digestChannel(FileChannel channel, ProgressListener listener)
+            throws IOException {
+        reset();
+        long start = channel.position();
+        long size = channel.size();
+        for (long position = start; position < size;) {
+            long len = Math.min(MAP_WINDOW, size - position);
+            MappedByteBuffer window = channel.map(MapMode.READ_ONLY, position, len);
+            window.order(ByteOrder.LITTLE_ENDIAN);
+            update(window);
+            position += len;
+            if (listener != null) {
+                listener.onProgress(position - start, size - start);
+            }
+        }
+        channel.position(Math.max(start, size));
+        return digest();
+    }
+
+    /**
+     * 输入字符序列，字符按照{@code UTF-8}编码后直接写入到内部的缓冲区，无法配对的代理字符按照{@code '?'}处理，
+     * 结果和{@code String.getBytes(StandardCharsets.UTF_8)}一致
+     * 
+     * @param input
+     *            字符序列
+     */
+    @Override
+    public void update(CharSequence input) {
+        int index = (int) count & 0x3f;
+        long written = 0L;
+        for (int i = 0, len = input.length(); i < len; i++) {
+            char c = input.charAt(i);
+            if (c < 0x80) {
+                index = put(index, c);
+                written++;
+            } else if (c < 0x800) {
+                index = put(index, 0xc0 | (c >> 6));
+                index = put(index, 0x80 | (c & 0x3f));
+                written += 2;
+            } else if (Character.isSurrogate(c)) {
+                char low;
+                if (Character.isHighSurrogate(c) && i + 1 < len
+                        && Character.isLowSurrogate(low = input.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, low);
+                    index = put(index, 0xf0 | (cp >> 18));
+                    index = put(index, 0x80 | ((cp >> 12) & 0x3f));
+                    index = put(index, 0x80 | ((cp >> 6) & 0x3f));
+                    index = put(index, 0x80 | (cp & 0x3f));
+                    written += 4;
+                    i++;
+                } else {
+                    index = put(index, '?');
+                    written++;
+                }
+            } else {
+                index = put(index, 0xe0 | (c >> 12));
+                index = put(index, 0x80 | ((c >> 6) & 0x3f));
+                index = put(index, 0x80 | (c & 0x3f));
+                written += 3;
+            }
+        }
+        count += written;
+    }
+
+    /**
+     * 输入字符序列，字符按照指定的字符集编码，无法编码的字符使用字符集的替换字符，
+     * 结果和{@code String.getBytes(Charset)}一致
+     * 
+     * @param input
+     *            字符序列
+     * @param charset
+     *            编码使用的字符集
+     */
+    public void update(CharSequence input, Charset charset) {
+        if (StandardCharsets.UTF_8.equals(charset)) {
+            update(input);
+            return;
+        }
+        CharsetEncoder enc = encoder;
+        if (enc == null || !enc.charset().equals(charset)) {
+            enc = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            encoder = enc;
+        }
+        if (encoded == null) {
+            encoded = ByteBuffer.allocate(256);
+        }
+        CharBuffer in = CharBuffer.wrap(input);
+        CoderResult result;
+        enc.reset();
+        do {
+            result = enc.encode(in, encoded, true);
+            flushEncoded();
+        } while (result.isOverflow());
+        do {
+            result = enc.flush(encoded);
+            flushEncoded();
+        } while (result.isOverflow());
+    }
+
+    /**
+     * 完成摘要的计算，将16字节的结果写入到给定的数组中，之后状态会被重置，可以开始下一次计算
+     * 
+     * @param out
+     *            保存结果的数组
+     * @param off
+     *            结果在数组中的开始位置
+     * @throws IndexOutOfBoundsException
+     *             数组中没有足够的空间保存结果
+     */
+    @Override
+    public void digest(byte[] out, int off) {
+        if (off < 0 || off > out.length - DIGEST_LENGTH) {
+            throw new IndexOutOfBoundsException();
+        }
+        long bits = count << 3;
+        int index = (int) count & 0x3f;
+        buffer[index++] = (byte) 0x80;
+        if (index > 56) {
+            Arrays.fill(buffer, index, BLOCK_LENGTH, (byte) 0);
+            decode(buffer, 0);
+            transform();
             index = 0;
-        } else {
-            i = 0;
         }
-        keyBeanMemcpy(buffer, inbuf, index, i, inputLen - i);
+        Arrays.fill(buffer, index, 56, (byte) 0);
+        for (int i = 56; i < BLOCK_LENGTH; i++, bits >>>= 8) {
+            buffer[i] = (byte) bits;
+        }
+        decode(buffer, 0);
+        transform();
+        encode(out, off);
+        reset();
     }
 
-    private void keyBeanFinal() {
-        byte[] bits = new byte[8];
-        int index, padLen;
-        encode(bits, count, 8);
-        index = (int) (count[0] >>> 3) & 0x3f;
-        padLen = (index < 56) ? (56 - index) : (120 - index);
-        keyBeanUpdate(PADDING, padLen);
-        keyBeanUpdate(bits, 8);
-        encode(digest, state, 16);
+    /**
+     * 完成摘要的计算并返回结果，之后状态会被重置
+     * 
+     * @return 16字节的摘要结果
+     * @see #digest(byte[], int)
+     */
+    @Override
+    public byte[] digest() {
+        byte[] out = new byte[DIGEST_LENGTH];
+        digest(out, 0);
+        return out;
     }
 
-    private void keyBeanMemcpy(byte[] output, byte[] input, int outpos, int inpos, int len) {
-        int i;
-        for (i = 0; i < len; i++) {
-            output[outpos + i] = input[inpos + i];
+    private int put(int index, int b) {
+        buffer[index++] = (byte) b;
+        if (index == BLOCK_LENGTH) {
+            decode(buffer, 0);
+            transform();
+            return 0;
         }
+        return index;
+    }
+
+    private void flushEncoded() {
+        encoded.flip();
+        update(encoded.array(), 0, encoded.limit());
+        encoded.clear();
+    }
+
+    @Override
+    public String digestHex() {
+        digest(digest, 0);
+        return toHex(digest);
     }
 
-    private void keyBeanTransform(byte block[]) {
-        long a = state[0], b = state[1], c = state[2], d = state[3];
-        long[] x = new long[16];
-        decode(x, block, 64);
+    private static int F(int x, int y, int z) {
+        return (x & y) | ((~x) & z);
+    }
+
+    private static int G(int x, int y, int z) {
+        return (x & z) | (y & (~z));
+    }
+
+    private static int H(int x, int y, int z) {
+        return x ^ y ^ z;
+    }
+
+    private static int I(int x, int y, int z) {
+        return y ^ (x | (~z));
+    }
+
+    static int FF(int a, int b, int c, int d, int x, int s, int ac) {
+        a += F(b, c, d) + x + ac;
+        return Integer.rotateLeft(a, s) + b;
+    }
+
+    static int GG(int a, int b, int c, int d, int x, int s, int ac) {
+        a += G(b, c, d) + x + ac;
+        return Integer.rotateLeft(a, s) + b;
+    }
+
+    static int HH(int a, int b, int c, int d, int x, int s, int ac) {
+        a += H(b, c, d) + x + ac;
+        return Integer.rotateLeft(a, s) + b;
+    }
+
+    static int II(int a, int b, int c, int d, int x, int s, int ac) {
+        a += I(b, c, d) + x + ac;
+        return Integer.rotateLeft(a, s) + b;
+    }
+
+    private void transform() {
+        int[] x = this.x;
+        int a = state[0], b = state[1], c = state[2], d = state[3];
 
         /* Round 1 */
-        a = FF(a, b, c, d, x[0], S11, 0xd76aa478L); /* 1 */
-        d = FF(d, a, b, c, x[1], S12, 0xe8c7b756L); /* 2 */
-        c = FF(c, d, a, b, x[2], S13, 0x242070dbL); /* 3 */
-        b = FF(b, c, d, a, x[3], S14, 0xc1bdceeeL); /* 4 */
-        a = FF(a, b, c, d, x[4], S11, 0xf57c0fafL); /* 5 */
-        d = FF(d, a, b, c, x[5], S12, 0x4787c62aL); /* 6 */
-        c = FF(c, d, a, b, x[6], S13, 0xa8304613L); /* 7 */
-        b = FF(b, c, d, a, x[7], S14, 0xfd469501L); /* 8 */
-        a = FF(a, b, c, d, x[8], S11, 0x698098d8L); /* 9 */
-        d = FF(d, a, b, c, x[9], S12, 0x8b44f7afL); /* 10 */
-        c = FF(c, d, a, b, x[10], S13, 0xffff5bb1L); /* 11 */
-        b = FF(b, c, d, a, x[11], S14, 0x895cd7beL); /* 12 */
-        a = FF(a, b, c, d, x[12], S11, 0x6b901122L); /* 13 */
-        d = FF(d, a, b, c, x[13], S12, 0xfd987193L); /* 14 */
-        c = FF(c, d, a, b, x[14], S13, 0xa679438eL); /* 15 */
-        b = FF(b, c, d, a, x[15], S14, 0x49b40821L); /* 16 */
+        a = FF(a, b, c, d, x[0], S11, 0xd76aa478); /* 1 */
+        d = FF(d, a, b, c, x[1], S12, 0xe8c7b756); /* 2 */
+        c = FF(c, d, a, b, x[2], S13, 0x242070db); /* 3 */
+        b = FF(b, c, d, a, x[3], S14, 0xc1bdceee); /* 4 */
+        a = FF(a, b, c, d, x[4], S11, 0xf57c0faf); /* 5 */
+        d = FF(d, a, b, c, x[5], S12, 0x4787c62a); /* 6 */
+        c = FF(c, d, a, b, x[6], S13, 0xa8304613); /* 7 */
+        b = FF(b, c, d, a, x[7], S14, 0xfd469501); /* 8 */
+        a = FF(a, b, c, d, x[8], S11, 0x698098d8); /* 9 */
+        d = FF(d, a, b, c, x[9], S12, 0x8b44f7af); /* 10 */
+        c = FF(c, d, a, b, x[10], S13, 0xffff5bb1); /* 11 */
+        b = FF(b, c, d, a, x[11], S14, 0x895cd7be); /* 12 */
+        a = FF(a, b, c, d, x[12], S11, 0x6b901122); /* 13 */
+        d = FF(d, a, b, c, x[13], S12, 0xfd987193); /* 14 */
+        c = FF(c, d, a, b, x[14], S13, 0xa679438e); /* 15 */
+        b = FF(b, c, d, a, x[15], S14, 0x49b40821); /* 16 */
 
         /* Round 2 */
-        a = GG(a, b, c, d, x[1], S21, 0xf61e2562L); /* 17 */
-        d = GG(d, a, b, c, x[6], S22, 0xc040b340L); /* 18 */
-        c = GG(c, d, a, b, x[11], S23, 0x265e5a51L); /* 19 */
-        b = GG(b, c, d, a, x[0], S24, 0xe9b6c7aaL); /* 20 */
-        a = GG(a, b, c, d, x[5], S21, 0xd62f105dL); /* 21 */
-        d = GG(d, a, b, c, x[10], S22, 0x2441453L); /* 22 */
-        c = GG(c, d, a, b, x[15], S23, 0xd8a1e681L); /* 23 */
-        b = GG(b, c, d, a, x[4], S24, 0xe7d3fbc8L); /* 24 */
-        a = GG(a, b, c, d, x[9], S21, 0x21e1cde6L); /* 25 */
-        d = GG(d, a, b, c, x[14], S22, 0xc33707d6L); /* 26 */
-        c = GG(c, d, a, b, x[3], S23, 0xf4d50d87L); /* 27 */
-        b = GG(b, c, d, a, x[8], S24, 0x455a14edL); /* 28 */
-        a = GG(a, b, c, d, x[13], S21, 0xa9e3e905L); /* 29 */
-        d = GG(d, a, b, c, x[2], S22, 0xfcefa3f8L); /* 30 */
-        c = GG(c, d, a, b, x[7], S23, 0x676f02d9L); /* 31 */
-        b = GG(b, c, d, a, x[12], S24, 0x8d2a4c8aL); /* 32 */
+        a = GG(a, b, c, d, x[1], S21, 0xf61e2562); /* 17 */
+        d = GG(d, a, b, c, x[6], S22, 0xc040b340); /* 18 */
+        c = GG(c, d, a, b, x[11], S23, 0x265e5a51); /* 19 */
+        b = GG(b, c, d, a, x[0], S24, 0xe9b6c7aa); /* 20 */
+        a = GG(a, b, c, d, x[5], S21, 0xd62f105d); /* 21 */
+        d = GG(d, a, b, c, x[10], S22, 0x2441453); /* 22 */
+        c = GG(c, d, a, b, x[15], S23, 0xd8a1e681); /* 23 */
+        b = GG(b, c, d, a, x[4], S24, 0xe7d3fbc8); /* 24 */
+        a = GG(a, b, c, d, x[9], S21, 0x21e1cde6); /* 25 */
+        d = GG(d, a, b, c, x[14], S22, 0xc33707d6); /* 26 */
+        c = GG(c, d, a, b, x[3], S23, 0xf4d50d87); /* 27 */
+        b = GG(b, c, d, a, x[8], S24, 0x455a14ed); /* 28 */
+        a = GG(a, b, c, d, x[13], S21, 0xa9e3e905); /* 29 */
+        d = GG(d, a, b, c, x[2], S22, 0xfcefa3f8); /* 30 */
+        c = GG(c, d, a, b, x[7], S23, 0x676f02d9); /* 31 */
+        b = GG(b, c, d, a, x[12], S24, 0x8d2a4c8a); /* 32 */
 
         /* Round 3 */
-        a = HH(a, b, c, d, x[5], S31, 0xfffa3942L); /* 33 */
-        d = HH(d, a, b, c, x[8], S32, 0x8771f681L); /* 34 */
-        c = HH(c, d, a, b, x[11], S33, 0x6d9d6122L); /* 35 */
-        b = HH(b, c, d, a, x[14], S34, 0xfde5380cL); /* 36 */
-        a = HH(a, b, c, d, x[1], S31, 0xa4beea44L); /* 37 */
-        d = HH(d, a, b, c, x[4], S32, 0x4bdecfa9L); /* 38 */
-        c = HH(c, d, a, b, x[7], S33, 0xf6bb4b60L); /* 39 */
-        b = HH(b, c, d, a, x[10], S34, 0xbebfbc70L); /* 40 */
-        a = HH(a, b, c, d, x[13], S31, 0x289b7ec6L); /* 41 */
-        d = HH(d, a, b, c, x[0], S32, 0xeaa127faL); /* 42 */
-        c = HH(c, d, a, b, x[3], S33, 0xd4ef3085L); /* 43 */
-        b = HH(b, c, d, a, x[6], S34, 0x4881d05L); /* 44 */
-        a = HH(a, b, c, d, x[9], S31, 0xd9d4d039L); /* 45 */
-        d = HH(d, a, b, c, x[12], S32, 0xe6db99e5L); /* 46 */
-        c = HH(c, d, a, b, x[15], S33, 0x1fa27cf8L); /* 47 */
-        b = HH(b, c, d, a, x[2], S34, 0xc4ac5665L); /* 48 */
+        a = HH(a, b, c, d, x[5], S31, 0xfffa3942); /* 33 */
+        d = HH(d, a, b, c, x[8], S32, 0x8771f681); /* 34 */
+        c = HH(c, d, a, b, x[11], S33, 0x6d9d6122); /* 35 */
+        b = HH(b, c, d, a, x[14], S34, 0xfde5380c); /* 36 */
+        a = HH(a, b, c, d, x[1], S31, 0xa4beea44); /* 37 */
+        d = HH(d, a, b, c, x[4], S32, 0x4bdecfa9); /* 38 */
+        c = HH(c, d, a, b, x[7], S33, 0xf6bb4b60); /* 39 */
+        b = HH(b, c, d, a, x[10], S34, 0xbebfbc70); /* 40 */
+        a = HH(a, b, c, d, x[13], S31, 0x289b7ec6); /* 41 */
+        d = HH(d, a, b, c, x[0], S32, 0xeaa127fa); /* 42 */
+        c = HH(c, d, a, b, x[3], S33, 0xd4ef3085); /* 43 */
+        b = HH(b, c, d, a, x[6], S34, 0x4881d05); /* 44 */
+        a = HH(a, b, c, d, x[9], S31, 0xd9d4d039); /* 45 */
+        d = HH(d, a, b, c, x[12], S32, 0xe6db99e5); /* 46 */
+        c = HH(c, d, a, b, x[15], S33, 0x1fa27cf8); /* 47 */
+        b = HH(b, c, d, a, x[2], S34, 0xc4ac5665); /* 48 */
 
         /* Round 4 */
-        a = II(a, b, c, d, x[0], S41, 0xf4292244L); /* 49 */
-        d = II(d, a, b, c, x[7], S42, 0x432aff97L); /* 50 */
-        c = II(c, d, a, b, x[14], S43, 0xab9423a7L); /* 51 */
-        b = II(b, c, d, a, x[5], S44, 0xfc93a039L); /* 52 */
-        a = II(a, b, c, d, x[12], S41, 0x655b59c3L); /* 53 */
-        d = II(d, a, b, c, x[3], S42, 0x8f0ccc92L); /* 54 */
-        c = II(c, d, a, b, x[10], S43, 0xffeff47dL); /* 55 */
-        b = II(b, c, d, a, x[1], S44, 0x85845dd1L); /* 56 */
-        a = II(a, b, c, d, x[8], S41, 0x6fa87e4fL); /* 57 */
-        d = II(d, a, b, c, x[15], S42, 0xfe2ce6e0L); /* 58 */
-        c = II(c, d, a, b, x[6], S43, 0xa3014314L); /* 59 */
-        b = II(b, c, d, a, x[13], S44, 0x4e0811a1L); /* 60 */
-        a = II(a, b, c, d, x[4], S41, 0xf7537e82L); /* 61 */
-        d = II(d, a, b, c, x[11], S42, 0xbd3af235L); /* 62 */
-        c = II(c, d, a, b, x[2], S43, 0x2ad7d2bbL); /* 63 */
-        b = II(b, c, d, a, x[9], S44, 0xeb86d391L); /* 64 */
+        a = II(a, b, c, d, x[0], S41, 0xf4292244); /* 49 */
+        d = II(d, a, b, c, x[7], S42, 0x432aff97); /* 50 */
+        c = II(c, d, a, b, x[14], S43, 0xab9423a7); /* 51 */
+        b = II(b, c, d, a, x[5], S44, 0xfc93a039); /* 52 */
+        a = II(a, b, c, d, x[12], S41, 0x655b59c3); /* 53 */
+        d = II(d, a, b, c, x[3], S42, 0x8f0ccc92); /* 54 */
+        c = II(c, d, a, b, x[10], S43, 0xffeff47d); /* 55 */
+        b = II(b, c, d, a, x[1], S44, 0x85845dd1); /* 56 */
+        a = II(a, b, c, d, x[8], S41, 0x6fa87e4f); /* 57 */
+        d = II(d, a, b, c, x[15], S42, 0xfe2ce6e0); /* 58 */
+        c = II(c, d, a, b, x[6], S43, 0xa3014314); /* 59 */
+        b = II(b, c, d, a, x[13], S44, 0x4e0811a1); /* 60 */
+        a = II(a, b, c, d, x[4], S41, 0xf7537e82); /* 61 */
+        d = II(d, a, b, c, x[11], S42, 0xbd3af235); /* 62 */
+        c = II(c, d, a, b, x[2], S43, 0x2ad7d2bb); /* 63 */
+        b = II(b, c, d, a, x[9], S44, 0xeb86d391); /* 64 */
 
         state[0] += a;
         state[1] += b;
@@ -279,36 +817,53 @@ public class MD5Code {
         state[3] += d;
     }
 
-    private void encode(byte[] output, long[] input, int len) {
-        int i, j;
-        for (i = 0, j = 0; j < len; i++, j += 4) {
-            output[j] = (byte) (input[i] & 0xffL);
-            output[j + 1] = (byte) ((input[i] >>> 8) & 0xffL);
-            output[j + 2] = (byte) ((input[i] >>> 16) & 0xffL);
-            output[j + 3] = (byte) ((input[i] >>> 24) & 0xffL);
+    private void encode(byte[] output, int off) {
+        for (int i = 0; i < 4; i++, off += 4) {
+            int s = state[i];
+            output[off] = (byte) s;
+            output[off + 1] = (byte) (s >>> 8);
+            output[off + 2] = (byte) (s >>> 16);
+            output[off + 3] = (byte) (s >>> 24);
         }
     }
 
-    private void decode(long[] output, byte[] input, int len) {
-        int i, j;
+    private void decode(byte[] input, int off) {
+        for (int i = 0; i < 16; i++, off += 4) {
+            x[i] = (input[off] & 0xff) | ((input[off + 1] & 0xff) << 8)
+                    | ((input[off + 2] & 0xff) << 16) | (input[off + 3] << 24);
+        }
+    }
 
-        for (i = 0, j = 0; j < len; i++, j += 4) {
-            output[i] = b2iu(input[j]) | (b2iu(input[j + 1]) << 8) | (b2iu(input[j + 2]) << 16)
-                    | (b2iu(input[j + 3]) << 24);
+    private void decode(ByteBuffer input, int pos, boolean littleEndian) {
+        for (int i = 0; i < 16; i++, pos += 4) {
+            int v = input.getInt(pos);
+            x[i] = littleEndian ? v : Integer.reverseBytes(v);
         }
     }
 
-    private long b2iu(byte b) {
-        return b < 0 ? b & 0x7F + 128 : b;
+    private String toHex(byte[] bytes) {
+        EncodeUtil.hex(bytes, 0, bytes.length, hex, 0);
+        return new String(hex, 0, bytes.length << 1);
     }
 
-    private String byteHEX(byte ib) {
-        char[] Digit = "0123456789abcdef".toCharArray();
-        char[] ob = new char[2];
-        ob[0] = Digit[(ib >>> 4) & 0X0F];
-        ob[1] = Digit[ib & 0X0F];
-        String s = new String(ob);
-        return s;
+    /**
+     * 计算文件摘要时的进度监听器
+     *
+     * @author 阿信sxq
+     *
+     */
+    public interface ProgressListener {
+
+        /**
+         * 通知当前的处理进度
+         * 
+         * @param processed
+         *            已经处理的字节数
+         * @param total
+         *            需要处理的总字节数
+         */
+        void onProgress(long processed, long total);
+
     }
 
 }
@@ -0,0 +1,299 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--上午10:12:37
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.code;
+
+import static cn.songxinqiang.stool.code.MD5Code.FF;
+import static cn.songxinqiang.stool.code.MD5Code.GG;
+import static cn.songxinqiang.stool.code.MD5Code.HH;
+import static cn.songxinqiang.stool.code.MD5Code.II;
+import static cn.songxinqiang.stool.code.MD5Code.S11;
+import static cn.songxinqiang.stool.code.MD5Code.S12;
+import static cn.songxinqiang.stool.code.MD5Code.S13;
+import static cn.songxinqiang.stool.code.MD5Code.S14;
+import static cn.songxinqiang.stool.code.MD5Code.S21;
+import static cn.songxinqiang.stool.code.MD5Code.S22;
+import static cn.songxinqiang.stool.code.MD5Code.S23;
+import static cn.songxinqiang.stool.code.MD5Code.S24;
+import static cn.songxinqiang.stool.code.MD5Code.S31;
+import static cn.songxinqiang.stool.code.MD5Code.S32;
+import static cn.songxinqiang.stool.code.MD5Code.S33;
+import static cn.songxinqiang.stool.code.MD5Code.S34;
+import static cn.songxinqiang.stool.code.MD5Code.S41;
+import static cn.songxinqiang.stool.code.MD5Code.S42;
+import static cn.songxinqiang.stool.code.MD5Code.S43;
+import static cn.songxinqiang.stool.code.MD5Code.S44;
+
+/**
+ * 多路交错的MD5计算，用于大量短消息的批量计算<br>
+ * 长度不超过{@linkplain #MAX_LENGTH}的消息填充之后正好是一个数据块，这里把{@linkplain #LANES}条这样的消息放在一起，
+ * 每一步运算都依次对各路数据执行，各路之间没有数据依赖，CPU可以同时执行，省去了逐条计算时的初始化、填充和状态复制的开销。
+ * 超过长度的消息以及凑不满一组的消息使用普通的{@linkplain MD5Code}计算<br>
+ * 每一路的状态需要4个寄存器，两路时所有状态都能留在寄存器中，路数再多反而会因为寄存器不够而变慢<br>
+ * <b>注意：</b>实例中保存有计算过程使用的缓冲区，不是线程安全的
+ *
+ * @author 阿信sxq
+ *
+ */
+final class MD5Lanes {
+
+    /**
+     * 同时计算的消息条数
+     */
+    static final int LANES = 2;
+
+    /**
+     * 可以按一个数据块计算的消息的最大长度
+     */
+    static final int MAX_LENGTH = 55;
+
+    // interleaved message words, word i of lane j is at i * LANES + j
+    private final int[] words = new int[16 * LANES];
+    // indexes of the messages waiting in the lanes
+    private final int[] pending = new int[LANES];
+
+    /**
+     * 计算区间{@code [from, to)}内每条消息的摘要，第{@code i}条消息的摘要写入到{@code out}的
+     * {@code off + 16 * i}位置
+     *
+     * @param inputs
+     *            消息
+     * @param from
+     *            开始位置(包含)
+     * @param to
+     *            结束位置(不包含)
+     * @param out
+     *            保存结果的数组
+     * @param off
+     *            结果在数组中的开始位置
+     * @param scalar
+     *            计算不能放入多路的消息时使用的实例
+     */
+    void digestAll(byte[][] inputs, int from, int to, byte[] out, int off, MD5Code scalar) {
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            byte[] in = inputs[i];
+            if (in.length > MAX_LENGTH) {
+                scalar.update(in, 0, in.length);
+                scalar.digest(out, off + i * MD5Code.DIGEST_LENGTH);
+                continue;
+            }
+            load(n, in);
+            pending[n++] = i;
+            if (n == LANES) {
+                transform(out, off);
+                n = 0;
+            }
+        }
+        for (int j = 0; j < n; j++) {
+            byte[] in = inputs[pending[j]];
+            scalar.update(in, 0, in.length);
+            scalar.digest(out, off + pending[j] * MD5Code.DIGEST_LENGTH);
+        }
+    }
+
+    /**
+     * 把消息填充成一个数据块写入到指定的路中
+     */
+    private void load(int lane, byte[] in) {
+        int[] w = words;
+        int len = in.length;
+        int full = len >> 2;
+        int i = 0, k = lane;
+        for (int p = 0; i < full; i++, k += LANES, p += 4) {
+            w[k] = (in[p] & 0xff) | ((in[p + 1] & 0xff) << 8) | ((in[p + 2] & 0xff) << 16)
+                    | (in[p + 3] << 24);
+        }
+        int last = 0x80 << ((len & 3) << 3);
+        for (int p = len - 1; p >= i << 2; p--) {
+            last |= (in[p] & 0xff) << ((p & 3) << 3);
+        }
+        w[k] = last;
+        for (i++, k += LANES; i < 14; i++, k += LANES) {
+            w[k] = 0;
+        }
+        w[k] = len << 3;
+        w[k + LANES] = 0;
+    }
+
+    private void transform(byte[] out, int off) {
+        int[] w = words;
+        int a0 = 0x67452301, b0 = 0xefcdab89, c0 = 0x98badcfe, d0 = 0x10325476;
+        int a1 = a0, b1 = b0, c1 = c0, d1 = d0;
+
+        /* Round 1 */
+        a0 = FF(a0, b0, c0, d0, w[0], S11, 0xd76aa478); /* 1 */
+        a1 = FF(a1, b1, c1, d1, w[1], S11, 0xd76aa478);
+        d0 = FF(d0, a0, b0, c0, w[2], S12, 0xe8c7b756); /* 2 */
+        d1 = FF(d1, a1, b1, c1, w[3], S12, 0xe8c7b756);
+        c0 = FF(c0, d0, a0, b0, w[4], S13, 0x242070db); /* 3 */
+        c1 = FF(c1, d1, a1, b1, w[5], S13, 0x242070db);
+        b0 = FF(b0, c0, d0, a0, w[6], S14, 0xc1bdceee); /* 4 */
+        b1 = FF(b1, c1, d1, a1, w[7], S14, 0xc1bdceee);
+        a0 = FF(a0, b0, c0, d0, w[8], S11, 0xf57c0faf); /* 5 */
+        a1 = FF(a1, b1, c1, d1, w[9], S11, 0xf57c0faf);
+        d0 = FF(d0, a0, b0, c0, w[10], S12, 0x4787c62a); /* 6 */
+        d1 = FF(d1, a1, b1, c1, w[11], S12, 0x4787c62a);
+        c0 = FF(c0, d0, a0, b0, w[12], S13, 0xa8304613); /* 7 */
+        c1 = FF(c1, d1, a1, b1, w[13], S13, 0xa8304613);
+        b0 = FF(b0, c0, d0, a0, w[14], S14, 0xfd469501); /* 8 */
+        b1 = FF(b1, c1, d1, a1, w[15], S14, 0xfd469501);
+        a0 = FF(a0, b0, c0, d0, w[16], S11, 0x698098d8); /* 9 */
+        a1 = FF(a1, b1, c1, d1, w[17], S11, 0x698098d8);
+        d0 = FF(d0, a0, b0, c0, w[18], S12, 0x8b44f7af); /* 10 */
+        d1 = FF(d1, a1, b1, c1, w[19], S12, 0x8b44f7af);
+        c0 = FF(c0, d0, a0, b0, w[20], S13, 0xffff5bb1); /* 11 */
+        c1 = FF(c1, d1, a1, b1, w[21], S13, 0xffff5bb1);
+        b0 = FF(b0, c0, d0, a0, w[22], S14, 0x895cd7be); /* 12 */
+        b1 = FF(b1, c1, d1, a1, w[23], S14, 0x895cd7be);
+        a0 = FF(a0, b0, c0, d0, w[24], S11, 0x6b901122); /* 13 */
+        a1 = FF(a1, b1, c1, d1, w[25], S11, 0x6b901122);
+        d0 = FF(d0, a0, b0, c0, w[26], S12, 0xfd987193); /* 14 */
+        d1 = FF(d1, a1, b1, c1, w[27], S12, 0xfd987193);
+        c0 = FF(c0, d0, a0, b0, w[28], S13, 0xa679438e); /* 15 */
+        c1 = FF(c1, d1, a1, b1, w[29], S13, 0xa679438e);
+        b0 = FF(b0, c0, d0, a0, w[30], S14, 0x49b40821); /* 16 */
+        b1 = FF(b1, c1, d1, a1, w[31], S14, 0x49b40821);
+
+        /* Round 2 */
+        a0 = GG(a0, b0, c0, d0, w[2], S21, 0xf61e2562); /* 17 */
+        a1 = GG(a1, b1, c1, d1, w[3], S21, 0xf61e2562);
+        d0 = GG(d0, a0, b0, c0, w[12], S22, 0xc040b340); /* 18 */
+        d1 = GG(d1, a1, b1, c1, w[13], S22, 0xc040b340);
+        c0 = GG(c0, d0, a0, b0, w[22], S23, 0x265e5a51); /* 19 */
+        c1 = GG(c1, d1, a1, b1, w[23], S23, 0x265e5a51);
+        b0 = GG(b0, c0, d0, a0, w[0], S24, 0xe9b6c7aa); /* 20 */
+        b1 = GG(b1, c1, d1, a1, w[1], S24, 0xe9b6c7aa);
+        a0 = GG(a0, b0, c0, d0, w[10], S21, 0xd62f105d); /* 21 */
+        a1 = GG(a1, b1, c1, d1, w[11], S21, 0xd62f105d);
+        d0 = GG(d0, a0, b0, c0, w[20], S22, 0x2441453); /* 22 */
+        d1 = GG(d1, a1, b1, c1, w[21], S22, 0x2441453);
+        c0 = GG(c0, d0, a0, b0, w[30], S23, 0xd8a1e681); /* 23 */
+        c1 = GG(c1, d1, a1, b1, w[31], S23, 0xd8a1e681);
+        b0 = GG(b0, c0, d0, a0, w[8], S24, 0xe7d3fbc8); /* 24 */
+        b1 = GG(b1, c1, d1, a1, w[9], S24, 0xe7d3fbc8);
+        a0 = GG(a0, b0, c0, d0, w[18], S21, 0x21e1cde6); /* 25 */
+        a1 = GG(a1, b1, c1, d1, w[19], S21, 0x21e1cde6);
+        d0 = GG(d0, a0, b0, c0, w[28], S22, 0xc33707d6); /* 26 */
+        d1 = GG(d1, a1, b1, c1, w[29], S22, 0xc33707d6);
+        c0 = GG(c0, d0, a0, b0, w[6], S23, 0xf4d50d87); /* 27 */
+        c1 = GG(c1, d1, a1, b1, w[7], S23, 0xf4d50d87);
+        b0 = GG(b0, c0, d0, a0, w[16], S24, 0x455a14ed); /* 28 */
+        b1 = GG(b1, c1, d1, a1, w[17], S24, 0x455a14ed);
+        a0 = GG(a0, b0, c0, d0, w[26], S21, 0xa9e3e905); /* 29 */
+        a1 = GG(a1, b1, c1, d1, w[27], S21, 0xa9e3e905);
+        d0 = GG(d0, a0, b0, c0, w[4], S22, 0xfcefa3f8); /* 30 */
+        d1 = GG(d1, a1, b1, c1, w[5], S22, 0xfcefa3f8);
+        c0 = GG(c0, d0, a0, b0, w[14], S23, 0x676f02d9); /* 31 */
+        c1 = GG(c1, d1, a1, b1, w[15], S23, 0x676f02d9);
+        b0 = GG(b0, c0, d0, a0, w[24], S24, 0x8d2a4c8a); /* 32 */
+        b1 = GG(b1, c1, d1, a1, w[25], S24, 0x8d2a4c8a);
+
+        /* Round 3 */
+        a0 = HH(a0, b0, c0, d0, w[10], S31, 0xfffa3942); /* 33 */
+        a1 = HH(a1, b1, c1, d1, w[11], S31, 0xfffa3942);
+        d0 = HH(d0, a0, b0, c0, w[16], S32, 0x8771f681); /* 34 */
+        d1 = HH(d1, a1, b1, c1, w[17], S32, 0x8771f681);
+        c0 = HH(c0, d0, a0, b0, w[22], S33, 0x6d9d6122); /* 35 */
+        c1 = HH(c1, d1, a1, b1, w[23], S33, 0x6d9d6122);
+        b0 = HH(b0, c0, d0, a0, w[28], S34, 0xfde5380c); /* 36 */
+        b1 = HH(b1, c1, d1, a1, w[29], S34, 0xfde5380c);
+        a0 = HH(a0, b0, c0, d0, w[2], S31, 0xa4beea44); /* 37 */
+        a1 = HH(a1, b1, c1, d1, w[3], S31, 0xa4beea44);
+        d0 = HH(d0, a0, b0, c0, w[8], S32, 0x4bdecfa9); /* 38 */
+        d1 = HH(d1, a1, b1, c1, w[9], S32, 0x4bdecfa9);
+        c0 = HH(c0, d0, a0, b0, w[14], S33, 0xf6bb4b60); /* 39 */
+        c1 = HH(c1, d1, a1, b1, w[15], S33, 0xf6bb4b60);
+        b0 = HH(b0, c0, d0, a0, w[20], S34, 0xbebfbc70); /* 40 */
+        b1 = HH(b1, c1, d1, a1, w[21], S34, 0xbebfbc70);
+        a0 = HH(a0, b0, c0, d0, w[26], S31, 0x289b7ec6); /* 41 */
+        a1 = HH(a1, b1, c1, d1, w[27], S31, 0x289b7ec6);
+        d0 = HH(d0, a0, b0, c0, w[0], S32, 0xeaa127fa); /* 42 */
+        d1 = HH(d1, a1, b1, c1, w[1], S32, 0xeaa127fa);
+        c0 = HH(c0, d0, a0, b0, w[6], S33, 0xd4ef3085); /* 43 */
+        c1 = HH(c1, d1, a1, b1, w[7], S33, 0xd4ef3085);
+        b0 = HH(b0, c0, d0, a0, w[12], S34, 0x4881d05); /* 44 */
+        b1 = HH(b1, c1, d1, a1, w[13], S34, 0x4881d05);
+        a0 = HH(a0, b0, c0, d0, w[18], S31, 0xd9d4d039); /* 45 */
+        a1 = HH(a1, b1, c1, d1, w[19], S31, 0xd9d4d039);
+        d0 = HH(d0, a0, b0, c0, w[24], S32, 0xe6db99e5); /* 46 */
+        d1 = HH(d1, a1, b1, c1, w[25], S32, 0xe6db99e5);
+        c0 = HH(c0, d0, a0, b0, w[30], S33, 0x1fa27cf8); /* 47 */
+        c1 = HH(c1, d1, a1, b1, w[31], S33, 0x1fa27cf8);
+        b0 = HH(b0, c0, d0, a0, w[4], S34, 0xc4ac5665); /* 48 */
+        b1 = HH(b1, c1, d1, a1, w[5], S34, 0xc4ac5665);
+
+        /* Round 4 */
+        a0 = II(a0, b0, c0, d0, w[0], S41, 0xf4292244); /* 49 */
+        a1 = II(a1, b1, c1, d1, w[1], S41, 0xf4292244);
+        d0 = II(d0, a0, b0, c0, w[14], S42, 0x432aff97); /* 50 */
+        d1 = II(d1, a1, b1, c1, w[15], S42, 0x432aff97);
+        c0 = II(c0, d0, a0, b0, w[28], S43, 0xab9423a7); /* 51 */
+        c1 = II(c1, d1, a1, b1, w[29], S43, 0xab9423a7);
+        b0 = II(b0, c0, d0, a0, w[10], S44, 0xfc93a039); /* 52 */
+        b1 = II(b1, c1, d1, a1, w[11], S44, 0xfc93a039);
+        a0 = II(a0, b0, c0, d0, w[24], S41, 0x655b59c3); /* 53 */
+        a1 = II(a1, b1, c1, d1, w[25], S41, 0x655b59c3);
+        d0 = II(d0, a0, b0, c0, w[6], S42, 0x8f0ccc92); /* 54 */
+        d1 = II(d1, a1, b1, c1, w[7], S42, 0x8f0ccc92);
+        c0 = II(c0, d0, a0, b0, w[20], S43, 0xffeff47d); /* 55 */
+        c1 = II(c1, d1, a1, b1, w[21], S43, 0xffeff47d);
+        b0 = II(b0, c0, d0, a0, w[2], S44, 0x85845dd1); /* 56 */
+        b1 = II(b1, c1, d1, a1, w[3], S44, 0x85845dd1);
+        a0 = II(a0, b0, c0, d0, w[16], S41, 0x6fa87e4f); /* 57 */
+        a1 = II(a1, b1, c1, d1, w[17], S41, 0x6fa87e4f);
+        d0 = II(d0, a0, b0, c0, w[30], S42, 0xfe2ce6e0); /* 58 */
+        d1 = II(d1, a1, b1, c1, w[31], S42, 0xfe2ce6e0);
+        c0 = II(c0, d0, a0, b0, w[12], S43, 0xa3014314); /* 59 */
+        c1 = II(c1, d1, a1, b1, w[13], S43, 0xa3014314);
+        b0 = II(b0, c0, d0, a0, w[26], S44, 0x4e0811a1); /* 60 */
+        b1 = II(b1, c1, d1, a1, w[27], S44, 0x4e0811a1);
+        a0 = II(a0, b0, c0, d0, w[8], S41, 0xf7537e82); /* 61 */
+        a1 = II(a1, b1, c1, d1, w[9], S41, 0xf7537e82);
+        d0 = II(d0, a0, b0, c0, w[22], S42, 0xbd3af235); /* 62 */
+        d1 = II(d1, a1, b1, c1, w[23], S42, 0xbd3af235);
+        c0 = II(c0, d0, a0, b0, w[4], S43, 0x2ad7d2bb); /* 63 */
+        c1 = II(c1, d1, a1, b1, w[5], S43, 0x2ad7d2bb);
+        b0 = II(b0, c0, d0, a0, w[18], S44, 0xeb86d391); /* 64 */
+        b1 = II(b1, c1, d1, a1, w[19], S44, 0xeb86d391);
+
+        store(out, off + pending[0] * MD5Code.DIGEST_LENGTH, a0, b0, c0, d0);
+        store(out, off + pending[1] * MD5Code.DIGEST_LENGTH, a1, b1, c1, d1);
+    }
+
+    private static void store(byte[] out, int off, int a, int b, int c, int d) {
+        putInt(out, off, a + 0x67452301);
+        putInt(out, off + 4, b + 0xefcdab89);
+        putInt(out, off + 8, c + 0x98badcfe);
+        putInt(out, off + 12, d + 0x10325476);
+    }
+
+    private static void putInt(byte[] out, int off, int v) {
+        out[off] = (byte) v;
+        out[off + 1] = (byte) (v >>> 8);
+        out[off + 2] = (byte) (v >>> 16);
+        out[off + 3] = (byte) (v >>> 24);
+    }
+
+}
@@ -0,0 +1,212 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午1:52:30
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.code;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * 使用JDK的{@link MessageDigest}实现的摘要计算，例如{@code SHA-1}、{@code SHA-256}<br>
+ * 每种算法第一次使用时通过{@linkplain MessageDigest#getInstance(String)}查找实现并缓存下来作为原型，
+ * 之后通过复制原型创建实例，不再重复查找安全提供者；空闲的实例保存在每种算法各自的{@link InstancePool}中。
+ * {@linkplain #hex(String, byte[])}等静态方法从实例池中取用实例，用完之后归还，只分配结果；
+ * {@linkplain #of(String)}返回的实例属于调用者，不会归还到实例池，实例池中没有空闲的实例时需要复制一次原型
+ * (复制摘要的内部状态，几百字节)，所以应该像{@linkplain Hashers#hashAll(java.util.function.Supplier, java.util.List)}
+ * 那样保留实例并重复使用，而不是每条数据创建一个
+ *
+ * @author 阿信sxq
+ *
+ */
+public final class MessageDigestHasher implements Hasher {
+
+    /**
+     * 各个算法的实例池
+     */
+    private static final ConcurrentMap<String, InstancePool<MessageDigest>> POOLS =
+            new ConcurrentHashMap<>();
+
+    private final MessageDigest md;
+
+    private MessageDigestHasher(MessageDigest md) {
+        this.md = md;
+    }
+
+    /**
+     * 创建指定算法的摘要计算实例，优先使用实例池中空闲的实例
+     *
+     * @param algorithm
+     *            算法名称，例如{@code SHA-256}
+     * @return 摘要计算实例
+     * @throws IllegalArgumentException
+     *             JDK中没有该算法的实现
+     */
+    public static MessageDigestHasher of(String algorithm) {
+        MessageDigest md = pool(algorithm).acquire();
+        md.reset();
+        return new MessageDigestHasher(md);
+    }
+
+    /**
+     * 计算数据的摘要，使用实例池中的实例，可以在多个线程中同时调用
+     *
+     * @param algorithm
+     *            算法名称，例如{@code SHA-256}
+     * @param input
+     *            需要计算摘要的数据
+     * @return 摘要结果
+     * @throws IllegalArgumentException
+     *             JDK中没有该算法的实现
+     */
+    public static byte[] digest(String algorithm, byte[] input) {
+        InstancePool<MessageDigest> pool = pool(algorithm);
+        MessageDigest md = pool.acquire();
+        try {
+            return md.digest(input);
+        } finally {
+            md.reset();
+            pool.release(md);
+        }
+    }
+
+    /**
+     * 计算数据的十六进制摘要，使用实例池中的实例，可以在多个线程中同时调用
+     *
+     * @param algorithm
+     *            算法名称，例如{@code SHA-256}
+     * @param input
+     *            需要计算摘要的数据
+     * @return 小写的十六进制摘要
+     * @throws IllegalArgumentException
+     *             JDK中没有该算法的实现
+     */
+    public static String hex(String algorithm, byte[] input) {
+        return EncodeUtil.toHex(digest(algorithm, input));
+    }
+
+    /**
+     * 计算字符串的十六进制摘要，字符串使用{@code UTF-8}编码，使用实例池中的实例，可以在多个线程中同时调用
+     *
+     * @param algorithm
+     *            算法名称，例如{@code SHA-256}
+     * @param input
+     *            需要计算摘要的字符串
+     * @return 小写的十六进制摘要
+     * @throws IllegalArgumentException
+     *             JDK中没有该算法的实现
+     */
+    public static String hex(String algorithm, String input) {
+        return hex(algorithm, input.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InstancePool<MessageDigest> pool(String algorithm) {
+        InstancePool<MessageDigest> pool = POOLS.get(algorithm);
+        if (pool != null) {
+            return pool;
+        }
+        MessageDigest prototype = newDigest(algorithm);
+        Supplier<MessageDigest> factory;
+        try {
+            prototype.clone();
+            factory = () -> {
+                try {
+                    return (MessageDigest) prototype.clone();
+                } catch (CloneNotSupportedException e) {
+                    throw new IllegalStateException(e);
+                }
+            };
+        } catch (CloneNotSupportedException e) {
+            // not cloneable, look it up every time
+            factory = () -> newDigest(algorithm);
+        }
+        pool = new InstancePool<>(factory);
+        InstancePool<MessageDigest> existing = POOLS.putIfAbsent(algorithm, pool);
+        return existing == null ? pool : existing;
+    }
+
+    private static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("unsupported digest algorithm: " + algorithm, e);
+        }
+    }
+
+    /**
+     * 算法名称
+     *
+     * @return 算法名称
+     */
+    public String getAlgorithm() {
+        return md.getAlgorithm();
+    }
+
+    @Override
+    public int digestLength() {
+        return md.getDigestLength();
+    }
+
+    @Override
+    public void update(byte[] input, int off, int len) {
+        if (off < 0 || len < 0 || off > input.length - len) {
+            throw new IndexOutOfBoundsException();
+        }
+        md.update(input, off, len);
+    }
+
+    @Override
+    public void update(ByteBuffer input) {
+        md.update(input);
+    }
+
+    @Override
+    public void digest(byte[] out, int off) {
+        int len = md.getDigestLength();
+        if (off < 0 || off > out.length - len) {
+            throw new IndexOutOfBoundsException();
+        }
+        try {
+            md.digest(out, off, len);
+        } catch (DigestException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public byte[] digest() {
+        return md.digest();
+    }
+
+    @Override
+    public void reset() {
+        md.reset();
+    }
+
+}
@@ -0,0 +1,100 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午8:15:40
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.code;
+
+/**
+ * 密码散列算法<br>
+ * 散列结果是自描述的字符串，包含算法、参数、盐值和结果，检查密码时从字符串中解析参数，
+ * 所以同一个算法任何参数计算的结果都可以检查。实现类的实例是不可变的，可以在多个线程之间共享
+ *
+ * @author 阿信sxq
+ *
+ * @see PasswordHashers
+ */
+public interface PasswordHasher {
+
+    /**
+     * 算法名称，和散列结果中的算法标识一致
+     *
+     * @return 算法名称
+     */
+    String getAlgorithm();
+
+    /**
+     * 使用随机的盐值计算密码的散列结果
+     *
+     * @param password
+     *            密码
+     * @return 自描述的散列结果
+     */
+    String hash(String password);
+
+    /**
+     * 检查密码和散列结果是否匹配
+     *
+     * @param password
+     *            需要检查的密码
+     * @param encoded
+     *            之前计算的散列结果
+     * @return 匹配时返回{@code true}
+     * @throws IllegalArgumentException
+     *             散列结果不是本算法的格式时
+     */
+    boolean verify(String password, String encoded);
+
+    /**
+     * 散列结果是否是本算法的格式
+     *
+     * @param encoded
+     *            散列结果
+     * @return 是本算法的格式时返回{@code true}
+     */
+    boolean supports(String encoded);
+
+    /**
+     * 散列结果是否需要用当前的参数重新计算，不是本算法的格式或者参数比当前的参数弱时需要
+     *
+     * @param encoded
+     *            散列结果
+     * @return 需要重新计算时返回{@code true}
+     */
+    boolean needsRehash(String encoded);
+
+    /**
+     * 每次计算大约需要的内存
+     *
+     * @return 字节数
+     */
+    long memoryCost();
+
+    /**
+     * 每次计算需要执行的基本运算次数，单位和算法有关(bcrypt是Blowfish加密次数，PBKDF2是SHA-256压缩次数，
+     * scrypt是Salsa20/8运算次数)，只用于比较同一个算法不同参数的计算量，计算时间和它成正比
+     *
+     * @return 基本运算次数
+     */
+    long cpuCost();
+
+}
@@ -0,0 +1,241 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午9:12:26
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.code;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 密码散列算法工具类<br>
+ * 根据散列结果的格式选择对应的算法检查密码(见{@linkplain #verify(String, String)})，
+ * 这样不同算法、不同参数的散列结果可以放在一起，逐步迁移到新的算法：
+ *
+ * <pre>
+ * PasswordHasher hasher = PasswordHashers.delegating(new ScryptPasswordHasher());
+ * if (hasher.verify(password, stored) &amp;&amp; hasher.needsRehash(stored)) {
+ *     stored = hasher.hash(password);
+ * }
+ * </pre>
+ *
+ * 算法的参数可以用{@linkplain #tune(IntFunction, int, int, long, TimeUnit)}在当前机器上按耗时预算选择
+ *
+ * @author 阿信sxq
+ *
+ */
+public final class PasswordHashers {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashers.class);
+
+    /**
+     * 检查时使用的算法，参数从散列结果中解析，所以这里的参数不影响检查
+     */
+    private static final PasswordHasher[] VERIFIERS = { new BCryptPasswordHasher(),
+            new Pbkdf2PasswordHasher(), new ScryptPasswordHasher() };
+
+    /**
+     * 调优时每个参数测量的次数
+     */
+    private static final int SAMPLES = 3;
+
+    private PasswordHashers() {
+    }
+
+    /**
+     * 根据散列结果的格式选择算法
+     *
+     * @param encoded
+     *            散列结果
+     * @return 对应的算法，不支持的格式返回{@code null}
+     */
+    public static PasswordHasher find(String encoded) {
+        for (PasswordHasher verifier : VERIFIERS) {
+            if (verifier.supports(encoded)) {
+                return verifier;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 是否是支持的格式
+     *
+     * @param encoded
+     *            散列结果
+     * @return 支持时返回{@code true}
+     */
+    public static boolean supports(String encoded) {
+        return find(encoded) != null;
+    }
+
+    /**
+     * 根据散列结果的格式选择算法检查密码
+     *
+     * @param password
+     *            需要检查的密码
+     * @param encoded
+     *            之前计算的散列结果
+     * @return 匹配时返回{@code true}
+     * @throws IllegalArgumentException
+     *             不支持的格式
+     */
+    public static boolean verify(String password, String encoded) {
+        PasswordHasher verifier = find(encoded);
+        if (verifier == null) {
+            throw new IllegalArgumentException("Unsupported password hash format");
+        }
+        return verifier.verify(password, encoded);
+    }
+
+    /**
+     * 使用指定的算法计算新的散列结果、检查所有支持的格式，其他格式和参数较弱的结果需要重新计算
+     *
+     * @param primary
+     *            计算新结果使用的算法
+     * @return 组合后的算法
+     */
+    public static PasswordHasher delegating(PasswordHasher primary) {
+        return new DelegatingPasswordHasher(primary);
+    }
+
+    /**
+     * 在当前机器上调整参数，从{@code minCost}开始依次测量，选择最慢一次耗时不超过预算的最大参数，
+     * 预算连{@code minCost}都不够时使用{@code minCost}。参数应当使计算量成倍增加，例如：
+     *
+     * <pre>
+     * tune(BCryptPasswordHasher::new, 8, 16, 250, TimeUnit.MILLISECONDS);
+     * tune(ln -&gt; new ScryptPasswordHasher(ln, 8, 1), 10, 20, 250, TimeUnit.MILLISECONDS);
+     * tune(i -&gt; new Pbkdf2PasswordHasher(1000 &lt;&lt; i), 0, 12, 250, TimeUnit.MILLISECONDS);
+     * </pre>
+     *
+     * @param factory
+     *            根据参数创建算法
+     * @param minCost
+     *            最小的参数
+     * @param maxCost
+     *            最大的参数
+     * @param budget
+     *            每次计算允许的最长耗时
+     * @param unit
+     *            耗时的时间单位
+     * @return 选择的算法
+     */
+    public static PasswordHasher tune(IntFunction<? extends PasswordHasher> factory, int minCost,
+            int maxCost, long budget, TimeUnit unit) {
+        long budgetNanos = unit.toNanos(budget);
+        if (budgetNanos <= 0) {
+            throw new IllegalArgumentException("budget must be positive: " + budget + " " + unit);
+        }
+        if (minCost > maxCost) {
+            throw new IllegalArgumentException("minCost > maxCost: " + minCost + " > " + maxCost);
+        }
+        String password = "tuning-password";
+        PasswordHasher chosen = factory.apply(minCost);
+        // warm up the JIT on the cheapest setting
+        chosen.hash(password);
+        for (int cost = minCost; cost <= maxCost; cost++) {
+            PasswordHasher hasher = cost == minCost ? chosen : factory.apply(cost);
+            long slowest = 0L;
+            for (int i = 0; i < SAMPLES; i++) {
+                long start = System.nanoTime();
+                hasher.hash(password);
+                slowest = Math.max(slowest, System.nanoTime() - start);
+            }
+            log.debug("{} took {}us", hasher, TimeUnit.NANOSECONDS.toMicros(slowest));
+            if (slowest > budgetNanos) {
+                break;
+            }
+            chosen = hasher;
+            // the next cost takes about twice as long, don't spend time measuring it
+            if (slowest > budgetNanos / 2) {
+                break;
+            }
+        }
+        log.info("password hasher tuned: {}, memory {} bytes", chosen, chosen.memoryCost());
+        return chosen;
+    }
+
+    /**
+     * 使用一个算法计算、检查所有支持的格式
+     *
+     * @author 阿信sxq
+     *
+     */
+    private static final class DelegatingPasswordHasher implements PasswordHasher {
+
+        private final PasswordHasher primary;
+
+        DelegatingPasswordHasher(PasswordHasher primary) {
+            this.primary = primary;
+        }
+
+        @Override
+        public String getAlgorithm() {
+            return primary.getAlgorithm();
+        }
+
+        @Override
+        public String hash(String password) {
+            return primary.hash(password);
+        }
+
+        @Override
+        public boolean verify(String password, String encoded) {
+            if (primary.supports(encoded)) {
+                return primary.verify(password, encoded);
+            }
+            return PasswordHashers.verify(password, encoded);
+        }
+
+        @Override
+        public boolean supports(String encoded) {
+            return primary.supports(encoded) || PasswordHashers.supports(encoded);
+        }
+
+        @Override
+        public boolean needsRehash(String encoded) {
+            return primary.needsRehash(encoded);
+        }
+
+        @Override
+        public long memoryCost() {
+            return primary.memoryCost();
+        }
+
+        @Override
+        public long cpuCost() {
+            return primary.cpuCost();
+        }
+
+        @Override
+        public String toString() {
+            return "delegating[" + primary + "]";
+        }
+
+    }
+
+}
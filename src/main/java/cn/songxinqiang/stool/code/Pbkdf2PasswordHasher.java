@@ -0,0 +1,227 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午8:31:07
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.code;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * PBKDF2-HMAC-SHA256密码散列算法(RFC 8018)<br>
+ * 格式是{@code $pbkdf2-sha256$i=迭代次数$盐值$结果}，盐值和结果使用不带填充的标准base64编码。
+ * 密码使用{@code UTF-8}编码，没有长度限制，只消耗CPU，几乎不需要内存
+ *
+ * @author 阿信sxq
+ *
+ */
+public final class Pbkdf2PasswordHasher implements PasswordHasher {
+
+    /**
+     * 默认的迭代次数
+     */
+    public static final int DEFAULT_ITERATIONS = 600000;
+    /**
+     * 允许的最大迭代次数，保存的散列值中的参数来自外部，需要限制一次验证的开销
+     */
+    public static final int MAX_ITERATIONS = 10000000;
+    /**
+     * 允许的最大结果字节数，结果每多32字节计算量就多一倍
+     */
+    public static final int MAX_HASH_LENGTH = 64;
+
+    private static final String PREFIX = "$pbkdf2-sha256$";
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+    private static final int SHA256_BLOCK = 64;
+
+    private final int iterations;
+
+    /**
+     * 使用默认的迭代次数创建
+     */
+    public Pbkdf2PasswordHasher() {
+        this(DEFAULT_ITERATIONS);
+    }
+
+    /**
+     * 使用指定的迭代次数创建
+     *
+     * @param iterations
+     *            迭代次数，不能超过{@linkplain #MAX_ITERATIONS}
+     */
+    public Pbkdf2PasswordHasher(int iterations) {
+        checkIterations(iterations);
+        this.iterations = iterations;
+    }
+
+    /**
+     * 迭代次数
+     *
+     * @return 迭代次数
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return "pbkdf2-sha256";
+    }
+
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_LENGTH];
+        SaltGenerator.random().nextBytes(salt);
+        byte[] hash = derive(password, salt, iterations, HASH_LENGTH);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "i=" + iterations + "$" + encoder.encodeToString(salt) + "$"
+                + encoder.encodeToString(hash);
+    }
+
+    @Override
+    public boolean verify(String password, String encoded) {
+        if (!supports(encoded)) {
+            throw new IllegalArgumentException("Not a PBKDF2-SHA256 hash");
+        }
+        String[] parts = encoded.substring(PREFIX.length()).split("\\$", -1);
+        if (parts.length != 3 || !parts[0].startsWith("i=")) {
+            throw new IllegalArgumentException("Invalid PBKDF2-SHA256 hash");
+        }
+        int count = Integer.parseInt(parts[0].substring(2));
+        checkIterations(count);
+        byte[] salt = Base64.getDecoder().decode(parts[1]);
+        byte[] expected = Base64.getDecoder().decode(parts[2]);
+        if (expected.length == 0 || expected.length > MAX_HASH_LENGTH) {
+            throw new IllegalArgumentException("Invalid PBKDF2-SHA256 hash");
+        }
+        return MessageDigest.isEqual(derive(password, salt, count, expected.length), expected);
+    }
+
+    @Override
+    public boolean supports(String encoded) {
+        return encoded.startsWith(PREFIX);
+    }
+
+    @Override
+    public boolean needsRehash(String encoded) {
+        if (!supports(encoded)) {
+            return true;
+        }
+        int end = encoded.indexOf('$', PREFIX.length());
+        String count = encoded.substring(PREFIX.length(), end < 0 ? encoded.length() : end);
+        return !count.startsWith("i=") || Integer.parseInt(count.substring(2)) < iterations;
+    }
+
+    @Override
+    public long memoryCost() {
+        return SHA256_BLOCK * 4;
+    }
+
+    @Override
+    public long cpuCost() {
+        // the inner and outer hash of HMAC, each one compression with the pads precomputed
+        return 2L * iterations;
+    }
+
+    @Override
+    public String toString() {
+        return "pbkdf2-sha256[iterations=" + iterations + "]";
+    }
+
+    private static void checkIterations(int iterations) {
+        if (iterations <= 0 || iterations > MAX_ITERATIONS) {
+            throw new IllegalArgumentException("Invalid PBKDF2-SHA256 iterations: " + iterations);
+        }
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations, int length) {
+        byte[] key = password.getBytes(StandardCharsets.UTF_8);
+        try {
+            return pbkdf2(key, salt, iterations, length);
+        } finally {
+            Arrays.fill(key, (byte) 0);
+        }
+    }
+
+    /**
+     * 计算PBKDF2-HMAC-SHA256
+     *
+     * @param password
+     *            密码
+     * @param salt
+     *            盐值
+     * @param iterations
+     *            迭代次数
+     * @param length
+     *            结果的字节数
+     * @return 计算结果
+     */
+    static byte[] pbkdf2(byte[] password, byte[] salt, int iterations, int length) {
+        Mac mac;
+        try {
+            mac = Mac.getInstance(MAC_ALGORITHM);
+            // SecretKeySpec rejects an empty key, HMAC pads the key with zeros anyway
+            mac.init(new SecretKeySpec(password.length == 0 ? new byte[SHA256_BLOCK] : password,
+                    MAC_ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(MAC_ALGORITHM + " is not available", e);
+        }
+        byte[] out = new byte[length];
+        byte[] u = new byte[HASH_LENGTH];
+        byte[] t = new byte[HASH_LENGTH];
+        byte[] index = new byte[4];
+        try {
+            for (int block = 1, off = 0; off < length; block++, off += HASH_LENGTH) {
+                index[0] = (byte) (block >>> 24);
+                index[1] = (byte) (block >>> 16);
+                index[2] = (byte) (block >>> 8);
+                index[3] = (byte) block;
+                mac.update(salt);
+                mac.update(index);
+                mac.doFinal(u, 0);
+                System.arraycopy(u, 0, t, 0, HASH_LENGTH);
+                for (int i = 1; i < iterations; i++) {
+                    mac.update(u);
+                    mac.doFinal(u, 0);
+                    for (int j = 0; j < HASH_LENGTH; j++) {
+                        t[j] ^= u[j];
+                    }
+                }
+                System.arraycopy(t, 0, out, off, Math.min(HASH_LENGTH, length - off));
+            }
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+        return out;
+    }
+
+}
@@ -0,0 +1,217 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午7:08:45
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.code;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * bcrypt盐值生成器<br>
+ * 预先生成一批编码好的盐值放在有界的环形队列中，{@linkplain #next()}直接从队列中取出，不需要等待随机数的生成；
+ * 队列中的盐值少于一半时由后台线程补充。队列取空时在调用线程中直接生成，也不会阻塞。<br>
+ * 所有的盐值都使用同一个共享的{@link SecureRandom}生成(见{@linkplain #random()})，
+ * 不会像每次创建新的{@link SecureRandom}那样在系统熵不足时(例如刚启动的容器)阻塞。
+ * 使用完之后需要调用{@linkplain #close()}停止后台线程
+ *
+ * @author 阿信sxq
+ *
+ * @see BCrypt#gensalt(int, SecureRandom)
+ */
+public final class SaltGenerator implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SaltGenerator.class);
+
+    /**
+     * 默认预先生成的盐值个数
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * 依次尝试的随机数算法：NativePRNGNonBlocking直接读取系统的/dev/urandom，永远不会阻塞；
+     * DRBG是Java 9之后的NIST SP 800-90A实现
+     */
+    private static final String[] ALGORITHMS = { "NativePRNGNonBlocking", "DRBG" };
+
+    private final int logRounds;
+    private final ArrayBlockingQueue<String> salts;
+    private final int lowWater;
+    private final ThreadPoolExecutor refiller;
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * 使用默认的容量创建生成器
+     *
+     * @param logRounds
+     *            盐值中的强度
+     */
+    public SaltGenerator(int logRounds) {
+        this(logRounds, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 创建生成器，创建之后立即在后台开始生成盐值
+     *
+     * @param logRounds
+     *            盐值中的强度
+     * @param capacity
+     *            预先生成的盐值个数
+     */
+    public SaltGenerator(int logRounds, int capacity) {
+        if (logRounds < 4 || logRounds > 30) {
+            throw new IllegalArgumentException("Bad number of rounds: " + logRounds);
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.logRounds = logRounds;
+        this.salts = new ArrayBlockingQueue<>(capacity);
+        this.lowWater = (capacity + 1) / 2;
+        // the thread exits when idle and is created again for the next refill
+        this.refiller = new ThreadPoolExecutor(0, 1, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new DaemonThreadFactory("bcrypt-salt"));
+        refill();
+    }
+
+    /**
+     * 共享的安全随机数生成器，第一次使用时创建，可以在多个线程中同时使用
+     *
+     * @return 随机数生成器
+     */
+    public static SecureRandom random() {
+        return RandomHolder.RANDOM;
+    }
+
+    /**
+     * 取得一个盐值
+     *
+     * @return 编码好的盐值，例如{@code $2a$10$...}
+     */
+    public String next() {
+        String salt = salts.poll();
+        if (salt == null) {
+            misses.increment();
+            salt = BCrypt.gensalt(logRounds, random());
+        }
+        if (salts.size() < lowWater) {
+            refill();
+        }
+        return salt;
+    }
+
+    /**
+     * 盐值中的强度
+     *
+     * @return 强度
+     */
+    public int getLogRounds() {
+        return logRounds;
+    }
+
+    /**
+     * 当前预先生成的可用盐值个数
+     *
+     * @return 盐值个数
+     */
+    public int available() {
+        return salts.size();
+    }
+
+    /**
+     * 队列为空、在调用线程中直接生成盐值的次数
+     *
+     * @return 次数
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 停止后台线程，之后{@linkplain #next()}仍然可以使用，但是不再预先生成
+     */
+    @Override
+    public void close() {
+        refiller.shutdownNow();
+    }
+
+    private void refill() {
+        if (!refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refiller.execute(() -> {
+                try {
+                    SecureRandom random = random();
+                    while (salts.remainingCapacity() > 0
+                            && !Thread.currentThread().isInterrupted()) {
+                        salts.offer(BCrypt.gensalt(logRounds, random));
+                    }
+                } finally {
+                    refilling.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refilling.set(false);
+        }
+    }
+
+    private static SecureRandom createRandom() {
+        for (String algorithm : ALGORITHMS) {
+            try {
+                SecureRandom random = SecureRandom.getInstance(algorithm);
+                log.debug("using SecureRandom {}", algorithm);
+                return random;
+            } catch (NoSuchAlgorithmException e) {
+                log.debug("SecureRandom {} is not available", algorithm);
+            }
+        }
+        SecureRandom random = new SecureRandom();
+        log.debug("using default SecureRandom {}", random.getAlgorithm());
+        return random;
+    }
+
+    /**
+     * 延迟创建共享的随机数生成器
+     *
+     * @author 阿信sxq
+     *
+     */
+    private static final class RandomHolder {
+
+        static final SecureRandom RANDOM = createRandom();
+
+    }
+
+}
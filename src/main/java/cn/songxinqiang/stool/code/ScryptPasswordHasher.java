@@ -0,0 +1,378 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午8:46:52
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.code;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * scrypt密码散列算法(RFC 7914)，纯Java实现<br>
+ * 格式是{@code $scrypt$ln=N的对数,r=块大小,p=并行度$盐值$结果}，盐值和结果使用不带填充的标准base64编码。
+ * 每次计算需要{@code 128 * r * N}字节的内存，用内存增加专用硬件破解的成本；
+ * 密码使用{@code UTF-8}编码，没有长度限制
+ *
+ * @author 阿信sxq
+ *
+ */
+public final class ScryptPasswordHasher implements PasswordHasher {
+
+    /**
+     * 默认的N的对数
+     */
+    public static final int DEFAULT_LOG_N = 16;
+    /**
+     * 默认的块大小
+     */
+    public static final int DEFAULT_R = 8;
+    /**
+     * 默认的并行度
+     */
+    public static final int DEFAULT_P = 2;
+    /**
+     * 允许的最大并行度，保存的散列值中的参数来自外部，需要限制一次验证的开销
+     */
+    public static final int MAX_P = 64;
+    /**
+     * 允许的最大的N的对数，{@code r}是8时每次计算需要1GB内存
+     */
+    public static final int MAX_LOG_N = 20;
+    /**
+     * 允许的最大结果字节数
+     */
+    public static final int MAX_HASH_LENGTH = 64;
+
+    private static final String PREFIX = "$scrypt$";
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+
+    private final int logN;
+    private final int r;
+    private final int p;
+
+    /**
+     * 使用默认的参数创建，每次计算需要64MB内存
+     */
+    public ScryptPasswordHasher() {
+        this(DEFAULT_LOG_N, DEFAULT_R, DEFAULT_P);
+    }
+
+    /**
+     * 使用指定的参数创建
+     *
+     * @param logN
+     *            CPU和内存开销N以2为底的对数，不能超过{@linkplain #MAX_LOG_N}
+     * @param r
+     *            块大小
+     * @param p
+     *            并行度，不能超过{@linkplain #MAX_P}
+     */
+    public ScryptPasswordHasher(int logN, int r, int p) {
+        checkParameters(logN, r, p);
+        this.logN = logN;
+        this.r = r;
+        this.p = p;
+    }
+
+    /**
+     * CPU和内存开销N以2为底的对数
+     *
+     * @return N的对数
+     */
+    public int getLogN() {
+        return logN;
+    }
+
+    /**
+     * 块大小
+     *
+     * @return 块大小
+     */
+    public int getR() {
+        return r;
+    }
+
+    /**
+     * 并行度
+     *
+     * @return 并行度
+     */
+    public int getP() {
+        return p;
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return "scrypt";
+    }
+
+    @Override
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_LENGTH];
+        SaltGenerator.random().nextBytes(salt);
+        byte[] hash = derive(password, salt, logN, r, p, HASH_LENGTH);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + "ln=" + logN + ",r=" + r + ",p=" + p + "$" + encoder.encodeToString(salt)
+                + "$" + encoder.encodeToString(hash);
+    }
+
+    @Override
+    public boolean verify(String password, String encoded) {
+        if (!supports(encoded)) {
+            throw new IllegalArgumentException("Not a scrypt hash");
+        }
+        String[] parts = encoded.substring(PREFIX.length()).split("\\$", -1);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid scrypt hash");
+        }
+        int[] params = parseParameters(parts[0]);
+        byte[] salt = Base64.getDecoder().decode(parts[1]);
+        byte[] expected = Base64.getDecoder().decode(parts[2]);
+        if (expected.length == 0 || expected.length > MAX_HASH_LENGTH) {
+            throw new IllegalArgumentException("Invalid scrypt hash");
+        }
+        byte[] actual = derive(password, salt, params[0], params[1], params[2], expected.length);
+        return MessageDigest.isEqual(actual, expected);
+    }
+
+    @Override
+    public boolean supports(String encoded) {
+        return encoded.startsWith(PREFIX);
+    }
+
+    @Override
+    public boolean needsRehash(String encoded) {
+        if (!supports(encoded)) {
+            return true;
+        }
+        int end = encoded.indexOf('$', PREFIX.length());
+        int[] params = parseParameters(
+                encoded.substring(PREFIX.length(), end < 0 ? encoded.length() : end));
+        return params[0] < logN || params[1] < r || params[2] < p;
+    }
+
+    @Override
+    public long memoryCost() {
+        return 128L * r << logN;
+    }
+
+    @Override
+    public long cpuCost() {
+        // 2N BlockMix per lane, each with 2r Salsa20/8 cores
+        return 4L * r * p << logN;
+    }
+
+    @Override
+    public String toString() {
+        return "scrypt[ln=" + logN + ",r=" + r + ",p=" + p + "]";
+    }
+
+    private static int[] parseParameters(String text) {
+        int[] params = new int[3];
+        String[] fields = text.split(",");
+        if (fields.length != 3 || !fields[0].startsWith("ln=") || !fields[1].startsWith("r=")
+                || !fields[2].startsWith("p=")) {
+            throw new IllegalArgumentException("Invalid scrypt parameters: " + text);
+        }
+        params[0] = Integer.parseInt(fields[0].substring(3));
+        params[1] = Integer.parseInt(fields[1].substring(2));
+        params[2] = Integer.parseInt(fields[2].substring(2));
+        checkParameters(params[0], params[1], params[2]);
+        return params;
+    }
+
+    private static void checkParameters(int logN, int r, int p) {
+        // B holds 128 * r * p bytes, this is also within the RFC 7914 bound on p
+        if (r <= 0 || p <= 0 || p > MAX_P || 128L * r * p > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid scrypt r/p: " + r + "/" + p);
+        }
+        // V is a single int array of 32 * r * N elements
+        if (logN < 1 || logN > MAX_LOG_N || (32L * r << logN) > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Invalid scrypt N: 2^" + logN);
+        }
+    }
+
+    private static byte[] derive(String password, byte[] salt, int logN, int r, int p,
+            int length) {
+        byte[] key = password.getBytes(StandardCharsets.UTF_8);
+        try {
+            return scrypt(key, salt, 1 << logN, r, p, length);
+        } finally {
+            Arrays.fill(key, (byte) 0);
+        }
+    }
+
+    /**
+     * 计算scrypt
+     *
+     * @param password
+     *            密码
+     * @param salt
+     *            盐值
+     * @param n
+     *            CPU和内存开销，2的幂
+     * @param r
+     *            块大小
+     * @param p
+     *            并行度
+     * @param length
+     *            结果的字节数
+     * @return 计算结果
+     */
+    static byte[] scrypt(byte[] password, byte[] salt, int n, int r, int p, int length) {
+        int blockBytes = 128 * r;
+        int blockInts = 32 * r;
+        byte[] b = Pbkdf2PasswordHasher.pbkdf2(password, salt, 1, p * blockBytes);
+        int[] x = new int[blockInts];
+        int[] y = new int[blockInts];
+        int[] v = new int[blockInts * n];
+        int[] t = new int[16];
+        for (int lane = 0; lane < p; lane++) {
+            int off = lane * blockBytes;
+            for (int i = 0; i < blockInts; i++) {
+                int k = off + i * 4;
+                x[i] = (b[k] & 0xff) | (b[k + 1] & 0xff) << 8 | (b[k + 2] & 0xff) << 16
+                        | (b[k + 3] & 0xff) << 24;
+            }
+            roMix(x, y, v, t, n, r);
+            for (int i = 0; i < blockInts; i++) {
+                int k = off + i * 4;
+                b[k] = (byte) x[i];
+                b[k + 1] = (byte) (x[i] >>> 8);
+                b[k + 2] = (byte) (x[i] >>> 16);
+                b[k + 3] = (byte) (x[i] >>> 24);
+            }
+        }
+        Arrays.fill(v, 0);
+        try {
+            return Pbkdf2PasswordHasher.pbkdf2(password, b, 1, length);
+        } finally {
+            Arrays.fill(b, (byte) 0);
+        }
+    }
+
+    private static void roMix(int[] x, int[] y, int[] v, int[] t, int n, int r) {
+        int len = 32 * r;
+        int last = (2 * r - 1) * 16;
+        // BlockMix writes into the other buffer, swap instead of copying back
+        int[] a = x;
+        int[] c = y;
+        int[] s;
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(a, 0, v, i * len, len);
+            blockMix(a, c, t, r);
+            s = a;
+            a = c;
+            c = s;
+        }
+        for (int i = 0; i < n; i++) {
+            int j = (a[last] & (n - 1)) * len;
+            for (int k = 0; k < len; k++) {
+                a[k] ^= v[j + k];
+            }
+            blockMix(a, c, t, r);
+            s = a;
+            a = c;
+            c = s;
+        }
+        if (a != x) {
+            System.arraycopy(a, 0, x, 0, len);
+        }
+    }
+
+    private static void blockMix(int[] in, int[] out, int[] t, int r) {
+        System.arraycopy(in, (2 * r - 1) * 16, t, 0, 16);
+        for (int i = 0; i < 2 * r; i++) {
+            int off = i * 16;
+            for (int k = 0; k < 16; k++) {
+                t[k] ^= in[off + k];
+            }
+            salsa8(t);
+            // even blocks go to the first half, odd blocks to the second
+            System.arraycopy(t, 0, out, ((i & 1) * r + (i >> 1)) * 16, 16);
+        }
+    }
+
+    private static void salsa8(int[] b) {
+        int x00 = b[0], x01 = b[1], x02 = b[2], x03 = b[3];
+        int x04 = b[4], x05 = b[5], x06 = b[6], x07 = b[7];
+        int x08 = b[8], x09 = b[9], x10 = b[10], x11 = b[11];
+        int x12 = b[12], x13 = b[13], x14 = b[14], x15 = b[15];
+        for (int i = 0; i < 8; i += 2) {
+            // columns
+            x04 ^= Integer.rotateLeft(x00 + x12, 7);
+            x08 ^= Integer.rotateLeft(x04 + x00, 9);
+            x12 ^= Integer.rotateLeft(x08 + x04, 13);
+            x00 ^= Integer.rotateLeft(x12 + x08, 18);
+            x09 ^= Integer.rotateLeft(x05 + x01, 7);
+            x13 ^= Integer.rotateLeft(x09 + x05, 9);
+            x01 ^= Integer.rotateLeft(x13 + x09, 13);
+            x05 ^= Integer.rotateLeft(x01 + x13, 18);
+            x14 ^= Integer.rotateLeft(x10 + x06, 7);
+            x02 ^= Integer.rotateLeft(x14 + x10, 9);
+            x06 ^= Integer.rotateLeft(x02 + x14, 13);
+            x10 ^= Integer.rotateLeft(x06 + x02, 18);
+            x03 ^= Integer.rotateLeft(x15 + x11, 7);
+            x07 ^= Integer.rotateLeft(x03 + x15, 9);
+            x11 ^= Integer.rotateLeft(x07 + x03, 13);
+            x15 ^= Integer.rotateLeft(x11 + x07, 18);
+            // rows
+            x01 ^= Integer.rotateLeft(x00 + x03, 7);
+            x02 ^= Integer.rotateLeft(x01 + x00, 9);
+            x03 ^= Integer.rotateLeft(x02 + x01, 13);
+            x00 ^= Integer.rotateLeft(x03 + x02, 18);
+            x06 ^= Integer.rotateLeft(x05 + x04, 7);
+            x07 ^= Integer.rotateLeft(x06 + x05, 9);
+            x04 ^= Integer.rotateLeft(x07 + x06, 13);
+            x05 ^= Integer.rotateLeft(x04 + x07, 18);
+            x11 ^= Integer.rotateLeft(x10 + x09, 7);
+            x08 ^= Integer.rotateLeft(x11 + x10, 9);
+            x09 ^= Integer.rotateLeft(x08 + x11, 13);
+            x10 ^= Integer.rotateLeft(x09 + x08, 18);
+            x12 ^= Integer.rotateLeft(x15 + x14, 7);
+            x13 ^= Integer.rotateLeft(x12 + x15, 9);
+            x14 ^= Integer.rotateLeft(x13 + x12, 13);
+            x15 ^= Integer.rotateLeft(x14 + x13, 18);
+        }
+        b[0] += x00;
+        b[1] += x01;
+        b[2] += x02;
+        b[3] += x03;
+        b[4] += x04;
+        b[5] += x05;
+        b[6] += x06;
+        b[7] += x07;
+        b[8] += x08;
+        b[9] += x09;
+        b[10] += x10;
+        b[11] += x11;
+        b[12] += x12;
+        b[13] += x13;
+        b[14] += x14;
+        b[15] += x15;
+    }
+
+}
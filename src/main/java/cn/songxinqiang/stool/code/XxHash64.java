@@ -0,0 +1,271 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午2:10:44
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.code;
+
+import java.nio.ByteBuffer;
+
+/**
+ * xxHash64非加密哈希算法的纯Java实现<br>
+ * 算法来自于<a href="https://github.com/Cyan4973/xxHash">xxHash</a>，速度远快于MD5，适合用作缓存键等不需要抵抗恶意碰撞的场景，
+ * 不能用于安全相关的用途。摘要结果是8字节，按照大端顺序输出，和官方实现的规范表示一致。<br>
+ * 测试用例：
+ *
+ * <pre>
+ * XXH64 ("", seed = 0) = ef46db3751d8e999
+ * XXH64 ("a", seed = 0) = d24ec4f1a98c6e5b
+ * XXH64 ("abc", seed = 0) = 44bc2cf5ad770999
+ * </pre>
+ *
+ * @author 阿信sxq
+ *
+ */
+public final class XxHash64 implements Hasher {
+
+    /**
+     * 摘要结果的长度(字节数)
+     */
+    public static final int DIGEST_LENGTH = 8;
+
+    private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME64_3 = 0x165667B19E3779F9L;
+    private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+    private static final int STRIPE = 32;
+
+    private final long seed;
+    private long v1;
+    private long v2;
+    private long v3;
+    private long v4;
+    private long total;
+    // bytes waiting for a full stripe
+    private final byte[] buffer = new byte[STRIPE];
+    private int buffered;
+
+    /**
+     * 使用种子{@code 0}创建实例
+     */
+    public XxHash64() {
+        this(0L);
+    }
+
+    /**
+     * 使用指定的种子创建实例
+     *
+     * @param seed
+     *            种子
+     */
+    public XxHash64(long seed) {
+        this.seed = seed;
+        reset();
+    }
+
+    /**
+     * 一次性计算数据的哈希值
+     *
+     * @param input
+     *            数据
+     * @param off
+     *            数据的开始位置
+     * @param len
+     *            数据的长度
+     * @param seed
+     *            种子
+     * @return 哈希值
+     */
+    public static long hash(byte[] input, int off, int len, long seed) {
+        if (off < 0 || len < 0 || off > input.length - len) {
+            throw new IndexOutOfBoundsException();
+        }
+        int end = off + len;
+        long h;
+        if (len >= STRIPE) {
+            long v1 = seed + PRIME64_1 + PRIME64_2;
+            long v2 = seed + PRIME64_2;
+            long v3 = seed;
+            long v4 = seed - PRIME64_1;
+            for (int limit = end - STRIPE; off <= limit; off += STRIPE) {
+                v1 = round(v1, getLong(input, off));
+                v2 = round(v2, getLong(input, off + 8));
+                v3 = round(v3, getLong(input, off + 16));
+                v4 = round(v4, getLong(input, off + 24));
+            }
+            h = converge(v1, v2, v3, v4);
+        } else {
+            h = seed + PRIME64_5;
+        }
+        return finish(h + len, input, off, end);
+    }
+
+    @Override
+    public int digestLength() {
+        return DIGEST_LENGTH;
+    }
+
+    @Override
+    public void update(byte[] input, int off, int len) {
+        if (off < 0 || len < 0 || off > input.length - len) {
+            throw new IndexOutOfBoundsException();
+        }
+        total += len;
+        if (buffered > 0) {
+            int part = Math.min(STRIPE - buffered, len);
+            System.arraycopy(input, off, buffer, buffered, part);
+            buffered += part;
+            off += part;
+            len -= part;
+            if (buffered < STRIPE) {
+                return;
+            }
+            stripe(buffer, 0);
+            buffered = 0;
+        }
+        for (; len >= STRIPE; off += STRIPE, len -= STRIPE) {
+            stripe(input, off);
+        }
+        if (len > 0) {
+            System.arraycopy(input, off, buffer, 0, len);
+            buffered = len;
+        }
+    }
+
+    @Override
+    public void update(ByteBuffer input) {
+        if (input.hasArray()) {
+            int pos = input.position();
+            int len = input.remaining();
+            update(input.array(), input.arrayOffset() + pos, len);
+            input.position(pos + len);
+            return;
+        }
+        while (input.hasRemaining()) {
+            int part = Math.min(STRIPE - buffered, input.remaining());
+            input.get(buffer, buffered, part);
+            buffered += part;
+            total += part;
+            if (buffered == STRIPE) {
+                stripe(buffer, 0);
+                buffered = 0;
+            }
+        }
+    }
+
+    /**
+     * 完成计算并返回哈希值，之后状态会被重置
+     *
+     * @return 哈希值
+     */
+    public long getValue() {
+        long h = total >= STRIPE ? converge(v1, v2, v3, v4) : seed + PRIME64_5;
+        h = finish(h + total, buffer, 0, buffered);
+        reset();
+        return h;
+    }
+
+    @Override
+    public void digest(byte[] out, int off) {
+        if (off < 0 || off > out.length - DIGEST_LENGTH) {
+            throw new IndexOutOfBoundsException();
+        }
+        long h = getValue();
+        for (int i = DIGEST_LENGTH - 1; i >= 0; i--, h >>>= 8) {
+            out[off + i] = (byte) h;
+        }
+    }
+
+    @Override
+    public void reset() {
+        v1 = seed + PRIME64_1 + PRIME64_2;
+        v2 = seed + PRIME64_2;
+        v3 = seed;
+        v4 = seed - PRIME64_1;
+        total = 0L;
+        buffered = 0;
+    }
+
+    private void stripe(byte[] input, int off) {
+        v1 = round(v1, getLong(input, off));
+        v2 = round(v2, getLong(input, off + 8));
+        v3 = round(v3, getLong(input, off + 16));
+        v4 = round(v4, getLong(input, off + 24));
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * PRIME64_2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * PRIME64_1;
+    }
+
+    private static long mergeRound(long acc, long val) {
+        acc ^= round(0L, val);
+        return acc * PRIME64_1 + PRIME64_4;
+    }
+
+    private static long converge(long v1, long v2, long v3, long v4) {
+        long h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12)
+                + Long.rotateLeft(v4, 18);
+        h = mergeRound(h, v1);
+        h = mergeRound(h, v2);
+        h = mergeRound(h, v3);
+        return mergeRound(h, v4);
+    }
+
+    /**
+     * 处理剩余不足一个分组的数据并完成最后的混合
+     */
+    private static long finish(long h, byte[] input, int off, int end) {
+        for (; off + 8 <= end; off += 8) {
+            h ^= round(0L, getLong(input, off));
+            h = Long.rotateLeft(h, 27) * PRIME64_1 + PRIME64_4;
+        }
+        if (off + 4 <= end) {
+            h ^= (getInt(input, off) & 0xffffffffL) * PRIME64_1;
+            h = Long.rotateLeft(h, 23) * PRIME64_2 + PRIME64_3;
+            off += 4;
+        }
+        for (; off < end; off++) {
+            h ^= (input[off] & 0xff) * PRIME64_5;
+            h = Long.rotateLeft(h, 11) * PRIME64_1;
+        }
+        h ^= h >>> 33;
+        h *= PRIME64_2;
+        h ^= h >>> 29;
+        h *= PRIME64_3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    private static long getLong(byte[] b, int off) {
+        return (getInt(b, off) & 0xffffffffL) | ((long) getInt(b, off + 4) << 32);
+    }
+
+    private static int getInt(byte[] b, int off) {
+        return (b[off] & 0xff) | ((b[off + 1] & 0xff) << 8) | ((b[off + 2] & 0xff) << 16)
+                | (b[off + 3] << 24);
+    }
+
+}
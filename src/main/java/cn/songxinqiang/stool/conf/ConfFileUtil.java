@@ -24,13 +24,15 @@
  */
 package cn.songxinqiang.stool.conf;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,22 +61,11 @@ public class ConfFileUtil {
      */
     private static final String NODE_START = "[";
     private static final String NODE_END = "]";
-    private static final String NODE_FORMAT = "[%s]";
     /**
      * 分隔符, 等号({@code "="})
      */
     public static final String SEPARATOR_EQUAL = "=";
 
-    /**
-     * 配置项行的结构样式
-     */
-    private static final String LINE_FORMAT = "%s=%s";
-
-    /**
-     * 拆分行的匹配模式
-     */
-    private static final Pattern LINE_SEPARATOR = Pattern.compile(SEPARATOR_EQUAL);
-
     /**
      * 读取配置文件的信息，等价于{@code readFileRecordWithNode(new File(file))}
      *
@@ -102,26 +93,12 @@ public class ConfFileUtil {
      */
     public static final Map<String, Map<String, String>> readFileRecordWithNode(File file) {
         log.info("read file: {}", file.getAbsolutePath());
-        Map<String, Map<String, String>> returnMap = new LinkedHashMap<String, Map<String, String>>();
-        Map<String, String> valueMap = null;
-
-        List<String> content = FileIO.readLine(file);
-        for (String line : content) {
-            if (line.length() <= 1 || line.startsWith(COMMENT_LINE_START)) {
-                continue;
-            }
-            if (line.startsWith(NODE_START)) {
-                valueMap = new LinkedHashMap<String, String>();
-                line = line.replace(NODE_START, "").replace(NODE_END, "");
-                returnMap.put(line, valueMap);
-                continue;
-            }
-            String[] strs = LINE_SEPARATOR.split(line, 2);
-            if (strs.length < 2) {
-                valueMap.put(strs[0].trim(), "");
-            } else {
-                valueMap.put(strs[0].trim(), strs[1].trim());
-            }
+        Map<String, Map<String, String>> returnMap;
+        try {
+            returnMap = parseRecordWithNode(file.toPath());
+        } catch (IOException e) {
+            log.error(e.getMessage());
+            returnMap = new LinkedHashMap<String, Map<String, String>>();
         }
 
         log.debug("file: {}, content: {}", file, returnMap);
@@ -129,6 +106,156 @@ public class ConfFileUtil {
         return returnMap;
     }
 
+    /**
+     * 解析有节点的配置文件，规则和{@linkplain #readFileRecordWithNode(File)}相同，读取出错时抛出异常
+     *
+     * @param path
+     *            配置文件
+     * @return 键值对的形式返回配置信息，值为具体的节点的配置信息
+     * @throws IOException
+     *             读取文件出错
+     */
+    static Map<String, Map<String, String>> parseRecordWithNode(Path path) throws IOException {
+        final Map<String, Map<String, String>> returnMap = new LinkedHashMap<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            new IniParser(true, false).parse(channel, new IniParser.Handler() {
+
+                private Map<String, String> valueMap;
+
+                @Override
+                public VisitResult section(String name, long offset) {
+                    valueMap = new LinkedHashMap<String, String>();
+                    returnMap.put(name, valueMap);
+                    return VisitResult.CONTINUE;
+                }
+
+                @Override
+                public VisitResult entry(String key, String value) {
+                    if (valueMap == null) {
+                        throw new IllegalStateException("entry before the first node: " + key);
+                    }
+                    valueMap.put(key, value);
+                    return VisitResult.CONTINUE;
+                }
+
+            });
+        }
+        return returnMap;
+    }
+
+    /**
+     * 解析配置文件，等价于{@code visit(new File(file), visitor)}
+     *
+     * @param file
+     *            文件的完整限定名
+     * @param visitor
+     *            访问者
+     * @throws IOException
+     *             读取文件出错
+     *
+     * @see #visit(File, IniVisitor)
+     */
+    public static final void visit(String file, IniVisitor visitor) throws IOException {
+        visit(new File(file), visitor);
+    }
+
+    /**
+     * 解析有节点的配置文件，按照文件中的顺序把节点、配置项和注释交给访问者，不在内存中保存文件的内容<br>
+     * 解析规则和{@linkplain #readFileRecordWithNode(File)}相同，访问者返回
+     * {@linkplain VisitResult#TERMINATE}时立即停止，不再读取文件剩下的内容
+     *
+     * @param file
+     *            配置文件
+     * @param visitor
+     *            访问者
+     * @throws IOException
+     *             读取文件出错
+     */
+    public static final void visit(File file, final IniVisitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            new IniParser(true, true).parse(channel, new IniParser.Handler() {
+
+                @Override
+                public VisitResult section(String name, long offset) {
+                    return visitor.onSection(name);
+                }
+
+                @Override
+                public VisitResult entry(String key, String value) {
+                    return visitor.onEntry(key, value);
+                }
+
+                @Override
+                public VisitResult comment(String text) {
+                    return visitor.onComment(text);
+                }
+
+            });
+        }
+    }
+
+    /**
+     * 只读取一个节点的配置项，读完这个节点就停止，不会解析文件剩下的内容，其他节点的配置项也不会解码<br>
+     * 节点名称重复时返回第一个节点的配置项
+     *
+     * @param file
+     *            配置文件
+     * @param section
+     *            节点名称
+     * @return 节点的配置项，节点不存在或者读取出错时返回{@code null}
+     */
+    public static final Map<String, String> readSection(File file, final String section) {
+        final Map<String, String> valueMap = new LinkedHashMap<>();
+        final boolean[] found = new boolean[1];
+        try {
+            visit(file, new IniVisitor() {
+
+                @Override
+                public VisitResult onSection(String name) {
+                    if (found[0]) {
+                        return VisitResult.TERMINATE;
+                    }
+                    found[0] = section.equals(name);
+                    return found[0] ? VisitResult.CONTINUE : VisitResult.SKIP_SECTION;
+                }
+
+                @Override
+                public VisitResult onEntry(String key, String value) {
+                    if (!found[0]) {
+                        // entries before the first node
+                        return VisitResult.SKIP_SECTION;
+                    }
+                    valueMap.put(key, value);
+                    return VisitResult.CONTINUE;
+                }
+
+            });
+        } catch (IOException e) {
+            log.error(e.getMessage());
+            return null;
+        }
+        return found[0] ? valueMap : null;
+    }
+
+    /**
+     * 按节点延迟加载配置文件，打开时只建立节点的索引，节点在第一次访问时才读取，适合很大的文件只使用其中几个节点的情况
+     *
+     * @param file
+     *            配置文件
+     * @param persistIndex
+     *            是否把索引保存在文件旁边，下次打开时文件没有变化就不需要再建立索引
+     * @return 打开的配置文件，使用完之后需要关闭
+     * @throws IOException
+     *             读取文件出错
+     *
+     * @see IndexedIniFile
+     */
+    public static final IndexedIniFile readFileIndexed(File file, boolean persistIndex)
+            throws IOException {
+        log.info("read file indexed: {}", file.getAbsolutePath());
+        return IndexedIniFile.open(file, persistIndex);
+    }
+
     /**
      * 读取配置文件的信息，等价于{@code readFileRecordWithoutNode(new File(file))}
      *
@@ -154,19 +281,27 @@ public class ConfFileUtil {
      */
     public static final Map<String, String> readFileRecordWithoutNode(File file) {
         log.info("read file: {}", file.getAbsolutePath());
-        Map<String, String> valueMap = new LinkedHashMap<String, String>();
-
-        List<String> content = FileIO.readLine(file);
-        for (String line : content) {
-            if (line.length() <= 1 || line.startsWith(COMMENT_LINE_START)) {
-                continue;
-            }
-            String[] strs = LINE_SEPARATOR.split(line, 2);
-            if (strs.length < 2) {
-                valueMap.put(strs[0].trim(), "");
-            } else {
-                valueMap.put(strs[0].trim(), strs[1].trim());
-            }
+        final Map<String, String> valueMap = new LinkedHashMap<String, String>();
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            new IniParser(false, false).parse(channel, new IniParser.Handler() {
+
+                @Override
+                public VisitResult section(String name, long offset) {
+                    // not called without nodes
+                    return VisitResult.CONTINUE;
+                }
+
+                @Override
+                public VisitResult entry(String key, String value) {
+                    valueMap.put(key, value);
+                    return VisitResult.CONTINUE;
+                }
+
+            });
+        } catch (IOException e) {
+            log.error(e.getMessage());
+            valueMap.clear();
         }
 
         log.debug("file: {}, content: {}", file, valueMap);
@@ -177,52 +312,65 @@ public class ConfFileUtil {
     /**
      * 将配置信息写入到文件中，覆盖原文件信息，指定的文件若不存在会新建文件,会对节点不加处理，值会紧随键之后，
      * 在键和值中间加入分隔符，分隔符使用({@linkplain #SEPARATOR_EQUAL},
-     * 在最后加入换行符(由{@code System.getProperty("line.separator");}确定)
+     * 在最后加入换行符(由{@code System.getProperty("line.separator");}确定)<br>
+     * 配置项直接写入带缓冲的{@code UTF-8}输出，写完之后原子地替换原文件，其他进程不会读到写了一半的文件
      *
      * @param file
      *            文件的完整限定名，若文件不存在会新建文件
      * @param map
      *            配置信息，键值对，值为配置详细的键值对
      * 
-     * @see FileIO#writeFile(String, List)
+     * @see FileIO#writeFileAtomic(File, FileIO.ContentWriter)
      */
     public static final void writeFileRecordWithNode(String file,
-            Map<String, Map<String, String>> map) {
-        log.info("write file: {}, node: {}", file, map);
-        List<String> contentList = new LinkedList<>();
-        for (Entry<String, Map<String, String>> entry : map.entrySet()) {
-            String node = String.format(NODE_FORMAT, entry.getKey());
-            contentList.add(node);
-
-            Map<String, String> valueMap = entry.getValue();
-
-            for (Entry<String, String> ent : valueMap.entrySet()) {
-                contentList.add(String.format(LINE_FORMAT, ent.getKey(), ent.getValue()));
-            }
+            final Map<String, Map<String, String>> map) {
+        log.info("write file: {}, {} nodes", file, map.size());
+        try {
+            FileIO.writeFileAtomic(new File(file), writer -> {
+                for (Entry<String, Map<String, String>> entry : map.entrySet()) {
+                    writer.write(NODE_START);
+                    writer.write(String.valueOf(entry.getKey()));
+                    writer.write(NODE_END);
+                    writer.newLine();
+                    writeEntries(writer, entry.getValue());
+                }
+            });
+        } catch (IOException e) {
+            log.error(e.getMessage());
         }
-        FileIO.writeFile(file, contentList);
     }
 
     /**
      * 将配置信息写入到文件中，覆盖原文件信息，指定的文件若不存在会新建文件,值会紧随键之后，
      * 在键和值中间加入分隔符，分隔符使用({@linkplain #SEPARATOR_EQUAL},
      * 在最后加入换行符(由{@code System.getProperty("line.separator");}确定)<br>
-     * 本方法输出的文件不包含节点
+     * 本方法输出的文件不包含节点，和{@linkplain #writeFileRecordWithNode(String, Map)}一样原子地替换原文件
      *
      * @param file
      *            输出到的目标文件，不存在的化会新建
      * @param map
      *            需要输出到目标文件的值，输出时会保留顺序
      * 
-     * @see FileIO#writeFile(String, List) 输出到文件
+     * @see FileIO#writeFileAtomic(File, FileIO.ContentWriter) 输出到文件
      */
-    public static final void writeFileRecordWithoutNode(String file, Map<String, String> map) {
-        log.info("write file: {}, node: {}", file, map);
-        List<String> contentList = new LinkedList<>();
+    public static final void writeFileRecordWithoutNode(String file,
+            final Map<String, String> map) {
+        log.info("write file: {}, {} entries", file, map.size());
+        try {
+            FileIO.writeFileAtomic(new File(file), writer -> writeEntries(writer, map));
+        } catch (IOException e) {
+            log.error(e.getMessage());
+        }
+    }
+
+    private static void writeEntries(BufferedWriter writer, Map<String, String> map)
+            throws IOException {
         for (Entry<String, String> entry : map.entrySet()) {
-            contentList.add(String.format(LINE_FORMAT, entry.getKey(), entry.getValue()));
+            writer.write(String.valueOf(entry.getKey()));
+            writer.write(SEPARATOR_EQUAL);
+            writer.write(String.valueOf(entry.getValue()));
+            writer.newLine();
         }
-        FileIO.writeFile(file, contentList);
     }
 
 }
@@ -0,0 +1,318 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午9:48:13
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.conf;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 缓存的有节点配置文件<br>
+ * 创建时读取并解析一次文件，之后的读取直接使用内存中不可修改的快照({@link IniConfig})，不再访问磁盘；快照通过{@code volatile}引用发布，
+ * 读取不需要加锁。调用{@linkplain #startWatching()}之后由后台线程使用{@link WatchService}监视文件，
+ * 文件变化时重新解析并整体替换快照，读取方看到的总是某一个完整版本的配置：
+ *
+ * <pre>
+ * ConfigSource source = ConfigSource.watch(new File("conf/app.ini"));
+ * String port = source.get("server", "port");
+ * </pre>
+ *
+ * 重新读取失败时(例如文件正在被替换)保留之前的快照。解析规则和{@linkplain ConfFileUtil#readFileRecordWithNode(File)}相同，
+ * 使用完之后需要调用{@linkplain #close()}停止监视
+ *
+ * @author 阿信sxq
+ *
+ */
+public final class ConfigSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfigSource.class);
+
+    /**
+     * 收到文件变化的事件之后等待的毫秒数，合并一次写入产生的多个事件
+     */
+    private static final long SETTLE_MILLIS = 50L;
+
+    private final Path path;
+    private final List<Consumer<Map<String, Map<String, String>>>> listeners =
+            new CopyOnWriteArrayList<>();
+
+    private volatile IniConfig config;
+
+    // attributes of the loaded version, guarded by this
+    private FileTime loadedModified;
+    private long loadedSize;
+
+    private WatchService watcher;
+    private Thread watchThread;
+
+    /**
+     * 读取并解析文件
+     *
+     * @param file
+     *            配置文件
+     * @throws IOException
+     *             读取文件出错
+     */
+    public ConfigSource(File file) throws IOException {
+        this.path = file.toPath().toAbsolutePath();
+        if (!load()) {
+            throw new IOException("can not read config file: " + path);
+        }
+    }
+
+    /**
+     * 读取文件并开始监视
+     *
+     * @param file
+     *            配置文件
+     * @return 配置
+     * @throws IOException
+     *             读取文件或者创建监视出错
+     */
+    public static ConfigSource watch(File file) throws IOException {
+        ConfigSource source = new ConfigSource(file);
+        source.startWatching();
+        return source;
+    }
+
+    /**
+     * 当前的配置快照，节点和配置项都保持文件中的顺序，不可修改
+     *
+     * @return 节点名称到配置项的映射
+     */
+    public Map<String, Map<String, String>> snapshot() {
+        return config.asMap();
+    }
+
+    /**
+     * 当前的配置，{@linkplain #snapshot()}是它的{@link Map}视图，可以使用类型化的方法读取
+     *
+     * @return 配置
+     */
+    public IniConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * 取得节点的所有配置项
+     *
+     * @param section
+     *            节点名称
+     * @return 配置项，节点不存在时返回空的映射
+     */
+    public Map<String, String> getSection(String section) {
+        Map<String, String> values = config.get(section);
+        return values == null ? Collections.<String, String> emptyMap() : values;
+    }
+
+    /**
+     * 取得配置项的值
+     *
+     * @param section
+     *            节点名称
+     * @param key
+     *            配置项名称
+     * @return 配置项的值，不存在时返回{@code null}
+     */
+    public String get(String section, String key) {
+        return config.get(section, key);
+    }
+
+    /**
+     * 取得配置项的值
+     *
+     * @param section
+     *            节点名称
+     * @param key
+     *            配置项名称
+     * @param defaultValue
+     *            不存在时返回的值
+     * @return 配置项的值
+     */
+    public String get(String section, String key, String defaultValue) {
+        String value = get(section, key);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * 添加配置重新读取之后的回调，回调在监视线程中执行
+     *
+     * @param listener
+     *            回调，参数是新的快照
+     */
+    public void addListener(Consumer<Map<String, Map<String, String>>> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 配置文件
+     *
+     * @return 文件的绝对路径
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * 立即重新读取文件，不管文件是否变化
+     *
+     * @return 读取成功返回{@code true}，失败时保留之前的快照
+     */
+    public boolean reload() {
+        boolean loaded;
+        synchronized (this) {
+            loaded = load();
+        }
+        if (loaded) {
+            notifyListeners();
+        }
+        return loaded;
+    }
+
+    /**
+     * 开始在后台线程中监视文件，重复调用没有影响
+     *
+     * @throws IOException
+     *             创建监视出错
+     */
+    public synchronized void startWatching() throws IOException {
+        if (watcher != null) {
+            return;
+        }
+        Path dir = path.getParent();
+        watcher = dir.getFileSystem().newWatchService();
+        dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        final WatchService service = watcher;
+        watchThread = new Thread(() -> watchLoop(service), "config-watch-" + path.getFileName());
+        watchThread.setDaemon(true);
+        watchThread.start();
+        log.debug("watching config file: {}", path);
+    }
+
+    /**
+     * 停止监视，之后仍然可以读取最后的快照
+     */
+    @Override
+    public synchronized void close() {
+        if (watcher == null) {
+            return;
+        }
+        try {
+            watcher.close();
+        } catch (IOException e) {
+            log.error(e.getMessage());
+        }
+        watchThread.interrupt();
+    }
+
+    private void watchLoop(WatchService service) {
+        Path name = path.getFileName();
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                do {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                                || name.equals(event.context());
+                    }
+                    key.reset();
+                    // a single save usually fires several events, handle them in one reload
+                } while ((key = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null);
+                if (changed) {
+                    refresh();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            log.debug("stop watching config file: {}", path);
+        }
+    }
+
+    private void refresh() {
+        boolean loaded;
+        synchronized (this) {
+            try {
+                BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+                if (attrs.lastModifiedTime().equals(loadedModified)
+                        && attrs.size() == loadedSize) {
+                    return;
+                }
+            } catch (IOException e) {
+                // deleted, keep the current snapshot until it is created again
+                log.debug("config file not readable: {}", path);
+                return;
+            }
+            loaded = load();
+        }
+        if (loaded) {
+            notifyListeners();
+        }
+    }
+
+    private boolean load() {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            IniConfig parsed = IniConfig.load(path);
+            config = parsed;
+            loadedModified = attrs.lastModifiedTime();
+            loadedSize = attrs.size();
+            log.debug("config file loaded: {}, {} sections", path, parsed.size());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("can not load config file {}: {}", path, e.toString());
+            return false;
+        }
+    }
+
+    private void notifyListeners() {
+        Map<String, Map<String, String>> current = config.asMap();
+        for (Consumer<Map<String, Map<String, String>>> listener : listeners) {
+            try {
+                listener.accept(current);
+            } catch (RuntimeException e) {
+                log.error("config listener failed", e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,411 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月18日--上午0:31:46
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.conf;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 按节点延迟加载的配置文件<br>
+ * 打开时只建立节点名称到文件中字节范围的索引，建立索引时只查找节点行，不解码配置项；
+ * 某个节点第一次被访问时才用{@link FileChannel}按位置读取这一段并解析，之后缓存在内存中。
+ * 很大的文件只需要其中少数几个节点时，启动时间和内存都只和用到的节点有关：
+ *
+ * <pre>
+ * try (IndexedIniFile ini = ConfFileUtil.readFileIndexed(new File("routes.ini"), true)) {
+ *     IniSection section = ini.getSection("device-42");
+ * }
+ * </pre>
+ *
+ * 索引可以保存到文件旁边的{@code 文件名.idx}中，其中记录了文件的修改时间和大小，
+ * 下次打开时两者都没有变化就直接使用，不需要再扫描文件。解析规则和{@linkplain ConfFileUtil#readFileRecordWithNode(File)}相同，
+ * 打开期间文件不应该被修改，发现修改时读取节点会抛出{@link IllegalStateException}。
+ * 可以在多个线程中同时读取，使用完之后需要调用{@linkplain #close()}关闭文件
+ *
+ * @author 阿信sxq
+ *
+ */
+public final class IndexedIniFile implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexedIniFile.class);
+
+    /**
+     * 索引文件的后缀
+     */
+    public static final String INDEX_SUFFIX = ".idx";
+
+    private static final int INDEX_MAGIC = 0x494e4958;
+    private static final int INDEX_VERSION = 1;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long modified;
+    private final long size;
+    // section name to {start, end} of its last occurrence, in order of first occurrence
+    private final Map<String, long[]> index;
+    private final Map<String, IniSection> loaded = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, String>> view = new LazyView();
+
+    private IndexedIniFile(Path path, FileChannel channel, long modified, long size,
+            Map<String, long[]> index) {
+        this.path = path;
+        this.channel = channel;
+        this.modified = modified;
+        this.size = size;
+        this.index = index;
+    }
+
+    /**
+     * 打开配置文件，有保存的索引并且文件没有变化时直接使用，否则扫描文件建立索引
+     *
+     * @param file
+     *            配置文件
+     * @param persistIndex
+     *            是否使用和保存索引文件，保存失败(例如目录只读)时只记录日志
+     * @return 打开的配置文件
+     * @throws IOException
+     *             读取文件出错
+     */
+    public static IndexedIniFile open(File file, boolean persistIndex) throws IOException {
+        Path path = file.toPath().toAbsolutePath();
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            long modified = attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+            long size = attrs.size();
+            Path indexPath = path.resolveSibling(path.getFileName() + INDEX_SUFFIX);
+            Map<String, long[]> index = persistIndex ? readIndex(indexPath, modified, size) : null;
+            if (index == null) {
+                index = buildIndex(channel, size);
+                if (persistIndex) {
+                    writeIndex(indexPath, modified, size, index);
+                }
+            }
+            return new IndexedIniFile(path, channel, modified, size,
+                    Collections.unmodifiableMap(index));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 所有节点的名称，按在文件中第一次出现的顺序排列
+     *
+     * @return 节点名称，不可修改
+     */
+    public Set<String> sectionNames() {
+        return index.keySet();
+    }
+
+    /**
+     * 是否有这个节点，不需要读取节点的内容
+     *
+     * @param name
+     *            节点名称
+     * @return 有这个节点时返回{@code true}
+     */
+    public boolean hasSection(String name) {
+        return index.containsKey(name);
+    }
+
+    /**
+     * 取得节点，第一次访问时从文件中读取并解析
+     *
+     * @param name
+     *            节点名称
+     * @return 节点，不存在时返回{@code null}
+     * @throws UncheckedIOException
+     *             读取文件出错
+     * @throws IllegalStateException
+     *             打开之后文件被修改
+     */
+    public IniSection getSection(String name) {
+        IniSection section = loaded.get(name);
+        if (section != null) {
+            return section;
+        }
+        long[] range = index.get(name);
+        if (range == null) {
+            return null;
+        }
+        return loaded.computeIfAbsent(name, key -> {
+            try {
+                return load(key, range[0], range[1]);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * 和{@linkplain ConfFileUtil#readFileRecordWithNode(File)}返回值类型相同的不可修改视图，
+     * 通过视图访问节点时才读取节点，遍历视图会读取所有节点
+     *
+     * @return 节点名称到配置项的映射
+     */
+    public Map<String, Map<String, String>> asMap() {
+        return view;
+    }
+
+    /**
+     * 已经读取过的节点数量
+     *
+     * @return 节点数量
+     */
+    public int loadedCount() {
+        return loaded.size();
+    }
+
+    /**
+     * 关闭文件，已经读取的节点仍然可以使用
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private IniSection load(String name, long start, long end) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        if (attrs.size() != size || attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS) != modified) {
+            throw new IllegalStateException("config file changed since it was opened: " + path);
+        }
+        int length = (int) (end - start);
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, start + buf.position()) < 0) {
+                throw new IOException("unexpected end of file: " + path);
+            }
+        }
+        final IniConfig.Builder builder = new IniConfig.Builder();
+        new IniParser(true, false).parse(
+                Channels.newChannel(new ByteArrayInputStream(buf.array())),
+                new IniParser.Handler() {
+
+                    @Override
+                    public VisitResult section(String section, long offset) {
+                        builder.section(section);
+                        return VisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public VisitResult entry(String key, String value) {
+                        builder.entry(key, value);
+                        return VisitResult.CONTINUE;
+                    }
+
+                });
+        IniSection section = builder.build().get(name);
+        log.debug("section loaded: {} [{}, {})", name, start, end);
+        return section;
+    }
+
+    private static Map<String, long[]> buildIndex(FileChannel channel, final long size)
+            throws IOException {
+        final Map<String, long[]> index = new LinkedHashMap<>();
+        new IniParser(true, false).parse(channel, new IniParser.Handler() {
+
+            private long[] last;
+
+            @Override
+            public VisitResult section(String name, long offset) {
+                if (last != null) {
+                    last[1] = offset;
+                }
+                last = new long[] { offset, size };
+                // a repeated section replaces the earlier one but keeps its position
+                index.put(name, last);
+                return VisitResult.SKIP_SECTION;
+            }
+
+            @Override
+            public VisitResult entry(String key, String value) {
+                throw new IllegalStateException("entry before the first node: " + key);
+            }
+
+        });
+        for (long[] range : index.values()) {
+            if (range[1] - range[0] > Integer.MAX_VALUE) {
+                throw new IOException("section too large: " + (range[1] - range[0]) + " bytes");
+            }
+        }
+        return index;
+    }
+
+    private static Map<String, long[]> readIndex(Path indexPath, long modified, long size) {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(indexPath)))) {
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION
+                    || in.readLong() != modified || in.readLong() != size) {
+                log.debug("stale index: {}", indexPath);
+                return null;
+            }
+            // a matching header does not make the rest trustworthy, check everything read
+            int count = in.readInt();
+            if (count < 0 || count > size) {
+                log.warn("invalid index {}: {} sections", indexPath, count);
+                return null;
+            }
+            Map<String, long[]> index = new LinkedHashMap<>(Math.min(count, 1 << 16) * 4 / 3 + 1);
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                long start = in.readLong();
+                long end = in.readLong();
+                if (start < 0 || start > end || end > size || end - start > Integer.MAX_VALUE) {
+                    log.warn("invalid index {}: section {} at {}-{}", indexPath, name, start, end);
+                    return null;
+                }
+                index.put(name, new long[] { start, end });
+            }
+            log.debug("index loaded: {}, {} sections", indexPath, count);
+            return index;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            log.warn("can not read index {}: {}", indexPath, e.toString());
+            return null;
+        }
+    }
+
+    private static void writeIndex(Path indexPath, long modified, long size,
+            Map<String, long[]> index) {
+        Path tmp = indexPath.resolveSibling(indexPath.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(INDEX_MAGIC);
+                out.writeInt(INDEX_VERSION);
+                out.writeLong(modified);
+                out.writeLong(size);
+                out.writeInt(index.size());
+                for (Map.Entry<String, long[]> entry : index.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(entry.getValue()[0]);
+                    out.writeLong(entry.getValue()[1]);
+                }
+            }
+            try {
+                Files.move(tmp, indexPath, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, indexPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            log.debug("index saved: {}, {} sections", indexPath, index.size());
+        } catch (IOException e) {
+            log.warn("can not save index {}: {}", indexPath, e.toString());
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {
+                // nothing more to do
+            }
+        }
+    }
+
+    /**
+     * 按需读取节点的{@link Map}视图
+     *
+     * @author 阿信sxq
+     *
+     */
+    private final class LazyView extends AbstractMap<String, Map<String, String>> {
+
+        @Override
+        public int size() {
+            return index.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return index.containsKey(key);
+        }
+
+        @Override
+        public Map<String, String> get(Object key) {
+            return key instanceof String ? getSection((String) key) : null;
+        }
+
+        @Override
+        public Set<Map.Entry<String, Map<String, String>>> entrySet() {
+            return new AbstractSet<Map.Entry<String, Map<String, String>>>() {
+
+                @Override
+                public int size() {
+                    return index.size();
+                }
+
+                @Override
+                public Iterator<Map.Entry<String, Map<String, String>>> iterator() {
+                    final Iterator<String> names = index.keySet().iterator();
+                    return new Iterator<Map.Entry<String, Map<String, String>>>() {
+
+                        @Override
+                        public boolean hasNext() {
+                            return names.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<String, Map<String, String>> next() {
+                            String name = names.next();
+                            Map<String, String> section = getSection(name);
+                            return new AbstractMap.SimpleImmutableEntry<>(name, section);
+                        }
+
+                    };
+                }
+
+            };
+        }
+
+    }
+
+}
@@ -0,0 +1,341 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午11:57:21
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.conf;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 紧凑的只读配置<br>
+ * 适合在整个进程生命周期中常驻内存的配置：
+ * <ul>
+ * <li>节点和配置项都保存在数组中，按名称查找使用开放寻址的散列表，不为每个配置项创建{@link Map.Entry}对象</li>
+ * <li>加载时对所有的键、值和节点名称去重，相同的字符串只保留一份</li>
+ * <li>键的顺序完全相同的节点(例如成千上万个结构相同的设备节点)共用同一份键数组和散列表</li>
+ * </ul>
+ * 本身就是不可修改的{@link Map}，{@linkplain #asMap()}返回和{@linkplain ConfFileUtil#readFileRecordWithNode(File)}
+ * 相同类型的视图，顺序和内容也相同。数值和时间长度可以通过{@link IniSection}的类型化方法读取，解析一次之后缓存。
+ * 实例不可修改，可以在多个线程之间共享
+ *
+ * @author 阿信sxq
+ *
+ */
+public final class IniConfig extends AbstractMap<String, IniSection> {
+
+    private final IniSection[] sections;
+    // index + 1 of the section, 0 for an empty slot
+    private final int[] table;
+    private final Map<String, Map<String, String>> view;
+
+    private IniConfig(IniSection[] sections) {
+        this.sections = sections;
+        int size = Integer.highestOneBit(Math.max(sections.length, 1) * 2 - 1) << 1;
+        this.table = new int[size];
+        int mask = size - 1;
+        for (int i = 0; i < sections.length; i++) {
+            int slot = IniSection.Keys.spread(sections[i].getName().hashCode()) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+        this.view = Collections.unmodifiableMap(this);
+    }
+
+    /**
+     * 读取配置文件，解析规则和{@linkplain ConfFileUtil#readFileRecordWithNode(File)}相同
+     *
+     * @param file
+     *            配置文件
+     * @return 配置
+     * @throws IOException
+     *             读取文件出错
+     */
+    public static IniConfig load(File file) throws IOException {
+        return load(file.toPath());
+    }
+
+    /**
+     * 读取配置文件，解析规则和{@linkplain ConfFileUtil#readFileRecordWithNode(File)}相同
+     *
+     * @param path
+     *            配置文件
+     * @return 配置
+     * @throws IOException
+     *             读取文件出错
+     */
+    public static IniConfig load(Path path) throws IOException {
+        final Builder builder = new Builder();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            new IniParser(true, false).parse(channel, new IniParser.Handler() {
+
+                @Override
+                public VisitResult section(String name, long offset) {
+                    builder.section(name);
+                    return VisitResult.CONTINUE;
+                }
+
+                @Override
+                public VisitResult entry(String key, String value) {
+                    builder.entry(key, value);
+                    return VisitResult.CONTINUE;
+                }
+
+            });
+        }
+        return builder.build();
+    }
+
+    /**
+     * 从已有的配置创建，保留其中的顺序
+     *
+     * @param map
+     *            节点名称到配置项的映射
+     * @return 配置
+     */
+    public static IniConfig of(Map<String, ? extends Map<String, String>> map) {
+        Builder builder = new Builder();
+        for (Map.Entry<String, ? extends Map<String, String>> section : map.entrySet()) {
+            builder.section(section.getKey());
+            for (Map.Entry<String, String> entry : section.getValue().entrySet()) {
+                builder.entry(entry.getKey(), entry.getValue());
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * 和{@linkplain ConfFileUtil#readFileRecordWithNode(File)}返回值类型相同的不可修改视图
+     *
+     * @return 节点名称到配置项的映射
+     */
+    public Map<String, Map<String, String>> asMap() {
+        return view;
+    }
+
+    @Override
+    public int size() {
+        return sections.length;
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        return indexOf(name) >= 0;
+    }
+
+    @Override
+    public IniSection get(Object name) {
+        int index = indexOf(name);
+        return index < 0 ? null : sections[index];
+    }
+
+    /**
+     * 取得配置项的值
+     *
+     * @param section
+     *            节点名称
+     * @param key
+     *            键
+     * @return 配置项的值，不存在时返回{@code null}
+     */
+    public String get(String section, String key) {
+        IniSection values = get(section);
+        return values == null ? null : values.get(key);
+    }
+
+    /**
+     * 取得{@code int}类型的配置项
+     *
+     * @param section
+     *            节点名称
+     * @param key
+     *            键
+     * @param defaultValue
+     *            不存在时返回的值
+     * @return 配置项的值
+     * @see IniSection#getInt(String, int)
+     */
+    public int getInt(String section, String key, int defaultValue) {
+        IniSection values = get(section);
+        return values == null ? defaultValue : values.getInt(key, defaultValue);
+    }
+
+    /**
+     * 取得{@code long}类型的配置项
+     *
+     * @param section
+     *            节点名称
+     * @param key
+     *            键
+     * @param defaultValue
+     *            不存在时返回的值
+     * @return 配置项的值
+     * @see IniSection#getLong(String, long)
+     */
+    public long getLong(String section, String key, long defaultValue) {
+        IniSection values = get(section);
+        return values == null ? defaultValue : values.getLong(key, defaultValue);
+    }
+
+    /**
+     * 取得时间长度类型的配置项
+     *
+     * @param section
+     *            节点名称
+     * @param key
+     *            键
+     * @param defaultValue
+     *            不存在时返回的值
+     * @return 配置项的值
+     * @see IniSection#getDuration(String, Duration)
+     */
+    public Duration getDuration(String section, String key, Duration defaultValue) {
+        IniSection values = get(section);
+        return values == null ? defaultValue : values.getDuration(key, defaultValue);
+    }
+
+    @Override
+    public Set<Map.Entry<String, IniSection>> entrySet() {
+        return new AbstractSet<Map.Entry<String, IniSection>>() {
+
+            @Override
+            public int size() {
+                return sections.length;
+            }
+
+            @Override
+            public Iterator<Map.Entry<String, IniSection>> iterator() {
+                return new Iterator<Map.Entry<String, IniSection>>() {
+
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < sections.length;
+                    }
+
+                    @Override
+                    public Map.Entry<String, IniSection> next() {
+                        if (next >= sections.length) {
+                            throw new NoSuchElementException();
+                        }
+                        IniSection section = sections[next++];
+                        return new AbstractMap.SimpleImmutableEntry<>(section.getName(), section);
+                    }
+
+                };
+            }
+
+        };
+    }
+
+    private int indexOf(Object name) {
+        if (!(name instanceof String)) {
+            return -1;
+        }
+        int mask = table.length - 1;
+        int slot = IniSection.Keys.spread(name.hashCode()) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (sections[entry - 1].getName().equals(name)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * 逐个节点地构建配置，去重用的表只在构建期间存在
+     *
+     * @author 阿信sxq
+     *
+     */
+    static final class Builder {
+
+        private final Map<String, String> strings = new HashMap<>();
+        private final Map<List<String>, IniSection.Keys> keySets = new HashMap<>();
+        // a repeated section replaces the earlier one but keeps its position, like LinkedHashMap
+        private final Map<String, IniSection> sections = new LinkedHashMap<>();
+        private final Map<String, String> current = new LinkedHashMap<>();
+        private String name;
+
+        void section(String section) {
+            flush();
+            name = dedup(section);
+        }
+
+        void entry(String key, String value) {
+            if (name == null) {
+                throw new IllegalStateException("entry before the first node: " + key);
+            }
+            current.put(dedup(key), dedup(value));
+        }
+
+        IniConfig build() {
+            flush();
+            return new IniConfig(sections.values().toArray(new IniSection[sections.size()]));
+        }
+
+        private void flush() {
+            if (name == null) {
+                return;
+            }
+            String[] keys = current.keySet().toArray(new String[current.size()]);
+            String[] values = current.values().toArray(new String[current.size()]);
+            List<String> keyList = Arrays.asList(keys);
+            IniSection.Keys shared = keySets.get(keyList);
+            if (shared == null) {
+                shared = new IniSection.Keys(keys);
+                keySets.put(keyList, shared);
+            }
+            sections.put(name, new IniSection(name, shared, values));
+            current.clear();
+            name = null;
+        }
+
+        private String dedup(String value) {
+            String existing = strings.putIfAbsent(value, value);
+            return existing == null ? value : existing;
+        }
+
+    }
+
+}
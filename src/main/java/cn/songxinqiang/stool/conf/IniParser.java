@@ -0,0 +1,302 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午10:26:31
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.conf;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 单遍扫描的配置文件解析器<br>
+ * 直接在读入的字节缓冲区中查找行结束符({@code \n}、{@code \r}或{@code \r\n})、注释、节点和分隔符，
+ * 只把键、值和节点名称解码成字符串，不生成整行的字符串，也不使用正则表达式，内存占用只和结果有关，和文件大小无关。
+ * 解析规则和原来按行读取时相同：
+ * <ul>
+ * <li>忽略长度不超过一个字符的行和以{@code ;}开头的行</li>
+ * <li>以{@code [}开头的行是节点，去掉其中所有的{@code [}和{@code ]}之后作为节点名称</li>
+ * <li>其他的行在第一个{@code =}处分为键和值，分别去掉首尾的空白，没有{@code =}时值是空字符串</li>
+ * </ul>
+ * 文件使用{@code UTF-8}编码，包含错误的编码时抛出{@link CharacterCodingException}，忽略的行和不需要的注释也会检查编码。
+ * 接收者可以通过返回值跳过节点或者停止解析，跳过的节点中的行只查找行结束符，不解码也不检查编码。实例不是线程安全的
+ *
+ * @author 阿信sxq
+ *
+ */
+final class IniParser {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final byte COMMENT_START = ';';
+    private static final byte NODE_START = '[';
+    private static final byte NODE_END = ']';
+    private static final byte SEPARATOR = '=';
+
+    /**
+     * 解析结果的接收者
+     *
+     * @author 阿信sxq
+     *
+     */
+    interface Handler {
+
+        /**
+         * 读到节点
+         *
+         * @param name
+         *            节点名称
+         * @param offset
+         *            节点所在行在文件中的字节偏移
+         * @return 之后的处理方式
+         */
+        VisitResult section(String name, long offset);
+
+        /**
+         * 读到配置项
+         *
+         * @param key
+         *            键
+         * @param value
+         *            值
+         * @return 之后的处理方式
+         */
+        VisitResult entry(String key, String value);
+
+        /**
+         * 读到注释行，只有创建解析器时指定了需要注释才会调用
+         *
+         * @param text
+         *            注释内容，不包含开头的{@code ;}
+         * @return 之后的处理方式
+         */
+        default VisitResult comment(String text) {
+            return VisitResult.CONTINUE;
+        }
+
+    }
+
+    private final boolean sections;
+    private final boolean comments;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+    private byte[] buf = new byte[BUFFER_SIZE];
+    private char[] chars = new char[256];
+    // file offset of buf[0]
+    private long position;
+    // skip everything up to the next section
+    private boolean skipping;
+
+    /**
+     * 创建解析器
+     *
+     * @param sections
+     *            是否识别节点，不识别时以{@code [}开头的行也作为配置项
+     * @param comments
+     *            是否需要注释行
+     */
+    IniParser(boolean sections, boolean comments) {
+        this.sections = sections;
+        this.comments = comments;
+    }
+
+    /**
+     * 从当前位置读取到结束或者接收者要求停止，依次把节点和配置项交给接收者
+     *
+     * @param channel
+     *            输入
+     * @param handler
+     *            接收者
+     * @throws IOException
+     *             读取出错或者编码错误
+     */
+    void parse(ReadableByteChannel channel, Handler handler) throws IOException {
+        position = 0L;
+        skipping = false;
+        int start = 0;
+        int scan = 0;
+        int limit = 0;
+        while (true) {
+            byte[] b = buf;
+            int i = scan;
+            while (i < limit && b[i] != '\n' && b[i] != '\r') {
+                i++;
+            }
+            if (i < limit) {
+                // "\r\n" ends the line at '\r' and leaves an empty line, which is skipped anyway
+                if (!line(start, i, handler)) {
+                    return;
+                }
+                start = i + 1;
+                scan = start;
+                continue;
+            }
+            // keep the partial line and read more behind it
+            if (start > 0) {
+                System.arraycopy(b, start, b, 0, limit - start);
+                position += start;
+                limit -= start;
+                start = 0;
+            } else if (limit == b.length) {
+                buf = Arrays.copyOf(b, b.length * 2);
+            }
+            scan = limit;
+            int n = channel.read(ByteBuffer.wrap(buf, limit, buf.length - limit));
+            if (n < 0) {
+                line(0, limit, handler);
+                return;
+            }
+            limit += n;
+        }
+    }
+
+    /**
+     * 处理一行
+     *
+     * @return 需要继续解析时返回{@code true}
+     */
+    private boolean line(int from, int to, Handler handler) throws IOException {
+        byte[] b = buf;
+        int len = to - from;
+        if (len <= 1) {
+            validate(from, to);
+            return true;
+        }
+        int first = b[from] & 0xff;
+        // a single two or three byte character is one char long, too short as well
+        if ((len == 2 && (first & 0xe0) == 0xc0) || (len == 3 && (first & 0xf0) == 0xe0)) {
+            validate(from, to);
+            return true;
+        }
+        boolean section = sections && first == NODE_START;
+        if (skipping && !section) {
+            return true;
+        }
+        if (first == COMMENT_START) {
+            if (!comments) {
+                validate(from + 1, to);
+                return true;
+            }
+            return control(handler.comment(decode(from + 1, to)));
+        }
+        if (section) {
+            // drop the brackets in place, the line is not needed afterwards
+            int end = from;
+            for (int i = from; i < to; i++) {
+                if (b[i] != NODE_START && b[i] != NODE_END) {
+                    b[end++] = b[i];
+                }
+            }
+            skipping = false;
+            return control(handler.section(decode(from, end), position + from));
+        }
+        int eq = from;
+        while (eq < to && b[eq] != SEPARATOR) {
+            eq++;
+        }
+        String key = decodeTrimmed(from, eq);
+        String value = eq == to ? "" : decodeTrimmed(eq + 1, to);
+        return control(handler.entry(key, value));
+    }
+
+    private boolean control(VisitResult result) {
+        if (result == VisitResult.SKIP_SECTION) {
+            skipping = true;
+        }
+        return result != VisitResult.TERMINATE;
+    }
+
+    private String decodeTrimmed(int from, int to) throws CharacterCodingException {
+        byte[] b = buf;
+        // String.trim() strips chars up to ' ', in UTF-8 those are exactly the bytes up to ' '
+        while (from < to && (b[from] & 0xff) <= ' ') {
+            from++;
+        }
+        while (to > from && (b[to - 1] & 0xff) <= ' ') {
+            to--;
+        }
+        return decode(from, to);
+    }
+
+    /**
+     * 检查不需要解码的行，和原来整个文件一起解码时一样，错误的编码要抛出异常
+     */
+    private void validate(int from, int to) throws CharacterCodingException {
+        byte[] b = buf;
+        for (int i = from; i < to; i++) {
+            if (b[i] < 0) {
+                decodeChars(i, to);
+                return;
+            }
+        }
+    }
+
+    private String decode(int from, int to) throws CharacterCodingException {
+        if (from == to) {
+            return "";
+        }
+        // decodeChars may replace chars with a larger array
+        int len = decodeChars(from, to);
+        return new String(chars, 0, len);
+    }
+
+    /**
+     * 解码到{@code chars}中
+     *
+     * @return 字符数
+     */
+    private int decodeChars(int from, int to) throws CharacterCodingException {
+        int len = to - from;
+        // UTF-8 never decodes to more chars than bytes
+        if (chars.length < len) {
+            chars = new char[Math.max(len, chars.length * 2)];
+        }
+        byte[] b = buf;
+        char[] c = chars;
+        int i = 0;
+        while (i < len && b[from + i] >= 0) {
+            c[i] = (char) b[from + i];
+            i++;
+        }
+        if (i == len) {
+            return len;
+        }
+        CharBuffer out = CharBuffer.wrap(c, i, len - i);
+        decoder.reset();
+        CoderResult result = decoder.decode(ByteBuffer.wrap(b, from + i, len - i), out, true);
+        if (result.isError()) {
+            result.throwException();
+        }
+        result = decoder.flush(out);
+        if (result.isError()) {
+            result.throwException();
+        }
+        return out.position();
+    }
+
+}
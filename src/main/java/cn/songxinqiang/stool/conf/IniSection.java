@@ -0,0 +1,296 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午11:38:04
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.conf;
+
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 只读的配置节点<br>
+ * 配置项保存在按文件顺序排列的数组中，按键查找使用开放寻址的散列表，不为每个配置项创建{@link Map.Entry}对象；
+ * 键的顺序完全相同的节点共用同一份键数组和散列表(见{@link IniConfig})。
+ * 本身就是不可修改的{@link Map}，也提供解析一次之后缓存结果的{@linkplain #getInt(String, int)}、
+ * {@linkplain #getLong(String, long)}、{@linkplain #getDuration(String, Duration)}
+ *
+ * @author 阿信sxq
+ *
+ */
+public final class IniSection extends AbstractMap<String, String> {
+
+    private final String name;
+    private final Keys keys;
+    private final String[] values;
+
+    // parsed typed values, created on first use; racing threads at worst parse twice
+    private volatile Object[] parsed;
+
+    IniSection(String name, Keys keys, String[] values) {
+        this.name = name;
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * 节点名称
+     *
+     * @return 节点名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return keys.indexOf(key) >= 0;
+    }
+
+    @Override
+    public String get(Object key) {
+        int index = keys.indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    /**
+     * 取得配置项的值
+     *
+     * @param key
+     *            键
+     * @param defaultValue
+     *            不存在时返回的值
+     * @return 配置项的值
+     */
+    public String get(String key, String defaultValue) {
+        int index = keys.indexOf(key);
+        return index < 0 ? defaultValue : values[index];
+    }
+
+    /**
+     * 取得{@code int}类型的配置项
+     *
+     * @param key
+     *            键
+     * @param defaultValue
+     *            不存在时返回的值
+     * @return 配置项的值
+     * @throws NumberFormatException
+     *             不是整数
+     */
+    public int getInt(String key, int defaultValue) {
+        int index = keys.indexOf(key);
+        if (index < 0) {
+            return defaultValue;
+        }
+        Object value = cached(index);
+        if (!(value instanceof Integer)) {
+            value = cache(index, Integer.valueOf(values[index].trim()));
+        }
+        return (Integer) value;
+    }
+
+    /**
+     * 取得{@code long}类型的配置项
+     *
+     * @param key
+     *            键
+     * @param defaultValue
+     *            不存在时返回的值
+     * @return 配置项的值
+     * @throws NumberFormatException
+     *             不是整数
+     */
+    public long getLong(String key, long defaultValue) {
+        int index = keys.indexOf(key);
+        if (index < 0) {
+            return defaultValue;
+        }
+        Object value = cached(index);
+        if (!(value instanceof Long)) {
+            value = cache(index, Long.valueOf(values[index].trim()));
+        }
+        return (Long) value;
+    }
+
+    /**
+     * 取得时间长度类型的配置项，可以是ISO-8601格式(例如{@code PT30S})，或者整数加上单位
+     * {@code ms}、{@code s}、{@code m}、{@code h}、{@code d}(例如{@code 500ms}、{@code 30s})，
+     * 没有单位时是毫秒
+     *
+     * @param key
+     *            键
+     * @param defaultValue
+     *            不存在时返回的值
+     * @return 配置项的值
+     * @throws IllegalArgumentException
+     *             格式错误
+     */
+    public Duration getDuration(String key, Duration defaultValue) {
+        int index = keys.indexOf(key);
+        if (index < 0) {
+            return defaultValue;
+        }
+        Object value = cached(index);
+        if (!(value instanceof Duration)) {
+            value = cache(index, parseDuration(values[index]));
+        }
+        return (Duration) value;
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        return new AbstractSet<Map.Entry<String, String>>() {
+
+            @Override
+            public int size() {
+                return values.length;
+            }
+
+            @Override
+            public Iterator<Map.Entry<String, String>> iterator() {
+                return new Iterator<Map.Entry<String, String>>() {
+
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < values.length;
+                    }
+
+                    @Override
+                    public Map.Entry<String, String> next() {
+                        if (next >= values.length) {
+                            throw new NoSuchElementException();
+                        }
+                        int i = next++;
+                        return new AbstractMap.SimpleImmutableEntry<>(keys.names[i], values[i]);
+                    }
+
+                };
+            }
+
+        };
+    }
+
+    private Object cached(int index) {
+        Object[] cache = parsed;
+        return cache == null ? null : cache[index];
+    }
+
+    private Object cache(int index, Object value) {
+        Object[] cache = parsed;
+        if (cache == null) {
+            cache = new Object[values.length];
+            parsed = cache;
+        }
+        cache[index] = value;
+        return value;
+    }
+
+    static Duration parseDuration(String text) {
+        String value = text.trim();
+        if (value.startsWith("P") || value.startsWith("p") || value.startsWith("-P")) {
+            return Duration.parse(value);
+        }
+        int end = value.length();
+        while (end > 0 && Character.isLetter(value.charAt(end - 1))) {
+            end--;
+        }
+        long amount = Long.parseLong(value.substring(0, end).trim());
+        switch (value.substring(end).toLowerCase(Locale.ROOT)) {
+            case "":
+            case "ms":
+                return Duration.ofMillis(amount);
+            case "s":
+                return Duration.ofSeconds(amount);
+            case "m":
+                return Duration.ofMinutes(amount);
+            case "h":
+                return Duration.ofHours(amount);
+            case "d":
+                return Duration.ofDays(amount);
+            default:
+                throw new IllegalArgumentException("Invalid duration: " + text);
+        }
+    }
+
+    /**
+     * 节点中的键，按文件顺序排列，带有开放寻址的散列表，键的顺序相同的节点共用
+     *
+     * @author 阿信sxq
+     *
+     */
+    static final class Keys {
+
+        final String[] names;
+        // index + 1 of the key in names, 0 for an empty slot
+        private final int[] table;
+
+        Keys(String[] names) {
+            this.names = names;
+            int size = Integer.highestOneBit(Math.max(names.length, 1) * 2 - 1) << 1;
+            this.table = new int[size];
+            int mask = size - 1;
+            for (int i = 0; i < names.length; i++) {
+                int slot = spread(names[i].hashCode()) & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = i + 1;
+            }
+        }
+
+        int indexOf(Object key) {
+            if (!(key instanceof String)) {
+                return -1;
+            }
+            int mask = table.length - 1;
+            int slot = spread(key.hashCode()) & mask;
+            int entry;
+            while ((entry = table[slot]) != 0) {
+                if (names[entry - 1].equals(key)) {
+                    return entry - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+
+    }
+
+}
@@ -0,0 +1,75 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午11:02:17
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.conf;
+
+import java.io.File;
+
+/**
+ * 配置文件内容的访问者<br>
+ * 由{@linkplain ConfFileUtil#visit(File, IniVisitor)}在解析的同时按文件中的顺序回调，不在内存中保存整个文件的内容，
+ * 适合很大的文件只读取一部分或者直接转存到其他地方。通过返回值可以跳过不需要的节点或者提前结束，
+ * 被跳过的内容不会解码成字符串。所有方法默认返回{@linkplain VisitResult#CONTINUE}
+ *
+ * @author 阿信sxq
+ *
+ */
+public interface IniVisitor {
+
+    /**
+     * 读到节点
+     *
+     * @param name
+     *            节点名称
+     * @return 之后的处理方式
+     */
+    default VisitResult onSection(String name) {
+        return VisitResult.CONTINUE;
+    }
+
+    /**
+     * 读到配置项
+     *
+     * @param key
+     *            键，已经去掉首尾的空白
+     * @param value
+     *            值，已经去掉首尾的空白，没有分隔符时是空字符串
+     * @return 之后的处理方式
+     */
+    default VisitResult onEntry(String key, String value) {
+        return VisitResult.CONTINUE;
+    }
+
+    /**
+     * 读到注释行
+     *
+     * @param text
+     *            注释内容，不包含开头的{@code ;}
+     * @return 之后的处理方式
+     */
+    default VisitResult onComment(String text) {
+        return VisitResult.CONTINUE;
+    }
+
+}
@@ -0,0 +1,50 @@
+/**
+ * <pre>
+ * Copyright (c) 2014, 2026 阿信sxq(songxinqiang@vip.qq.com).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * </pre>
+ */
+/*
+ * 创建时间：2026年10月17日--下午11:05:42
+ * 作者：宋信强(阿信sxq, songxinqiang@vip.qq.com, https://my.oschina.net/songxinqiang)
+ * <p>
+ * 众里寻她千百度, 蓦然回首, 那人却在灯火阑珊处.
+ * </p>
+ */
+package cn.songxinqiang.stool.conf;
+
+/**
+ * {@link IniVisitor}的返回值，控制之后的解析
+ *
+ * @author 阿信sxq
+ *
+ */
+public enum VisitResult {
+
+    /**
+     * 继续解析
+     */
+    CONTINUE,
+
+    /**
+     * 跳过当前节点剩下的内容，从下一个节点继续；在第一个节点之前返回时跳过到第一个节点
+     */
+    SKIP_SECTION,
+
+    /**
+     * 停止解析，不再读取文件剩下的内容
+     */
+    TERMINATE
+
+}
@@ -24,15 +24,25 @@
  */
 package cn.songxinqiang.stool.io;
 
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,6 +66,15 @@ public class FileIO {
         LINE_SEPARATOR = System.getProperty("line.separator");
     }
 
+    /**
+     * 写文件时的缓冲区大小
+     */
+    private static final int WRITE_BUFFER = 64 * 1024;
+    /**
+     * 跟随符号链接的最大层数，和Linux的限制相同
+     */
+    private static final int MAX_SYMLINK_HOPS = 40;
+
     /**
      * 使用{@code UTF-8}的编码读取文件中的所有行，读取出错返回空列表
      *
@@ -75,6 +94,25 @@ public class FileIO {
         return list;
     }
 
+    /**
+     * 使用{@code UTF-8}的编码逐行读取文件，不会一次把所有行读入内存，适合很大的文件。
+     * 返回的流使用完之后需要关闭，打开文件出错返回空的流
+     *
+     * @param file
+     *            需要读取的文件
+     * @return 文件内容的行
+     * 
+     * @see Files#lines(java.nio.file.Path)
+     */
+    public static final Stream<String> lines(File file) {
+        try {
+            return Files.lines(file.toPath());
+        } catch (IOException e) {
+            log.error(e.getMessage());
+            return Stream.empty();
+        }
+    }
+
     /**
      * 读取文件内容，传入的字符串参数是文件的完整路径描述，将用于创建{@code File}的对象，调用本方法和调用
      * {@code #readLine(new File(file));}是一样的的
@@ -106,32 +144,26 @@ public class FileIO {
      * 按照一次一行的方式写文件<br>
      * 会将文件中原有内容清除掉，所以需要在调用本方法传入的文件内容就会是调用后文件中的所有内容。
      * 文件写入时使用的行分隔符，使用的是和操作系统相关的分隔符,使用
-     * {@code System.getProperty("line.separator");}获取。
+     * {@code System.getProperty("line.separator");}获取。文件使用{@code UTF-8}编码，
+     * 通过{@linkplain #writeFileAtomic(File, ContentWriter)}写入，不会留下写了一半的文件
      *
      * @param file
      *            要写入到的文件的路径描述
      * @param content
      *            文件内容
-     * @see FileWriter#write(String)
+     * @see #writeFileAtomic(File, ContentWriter)
      */
-    public static final void writeFile(File file, List<String> content) {
-        log.info("write file: {}, content: {}", file, Arrays.toString(content.toArray()));
-        FileWriter writer = null;
+    public static final void writeFile(File file, final List<String> content) {
+        log.info("write file: {}, {} lines", file, content.size());
         try {
-            writer = new FileWriter(file);
-            for (String line : content) {
-                writer.write(line + LINE_SEPARATOR);
-            }
+            writeFileAtomic(file, writer -> {
+                for (String line : content) {
+                    writer.write(line);
+                    writer.write(LINE_SEPARATOR);
+                }
+            });
         } catch (IOException e) {
             log.error(e.getMessage());
-        } finally {
-            try {
-                if (writer != null) {
-                    writer.close();
-                }
-            } catch (IOException e) {
-                log.error(e.getMessage());
-            }
         }
     }
 
@@ -149,33 +181,124 @@ public class FileIO {
     }
 
     /**
-     * 向文件中写入文本内容，会冲掉原本文件中的所有内容，如果文件不存在则会创建该文件
+     * 向文件中写入文本内容，会冲掉原本文件中的所有内容，如果文件不存在则会创建该文件。文件使用{@code UTF-8}编码，
+     * 通过{@linkplain #writeFileAtomic(File, ContentWriter)}写入，不会留下写了一半的文件
      *
      * @param file
      *            写入的目标文件
      * @param content
      *            需要写入到文件中的内容
-     * @see FileWriter#write(String)
+     * @see #writeFileAtomic(File, ContentWriter)
      */
-    public static final void writeFile(File file, String content) {
-        log.info("write file: {}, content: {}", file, content);
-        FileWriter writer = null;
+    public static final void writeFile(File file, final String content) {
+        log.info("write file: {}, {} chars", file, content.length());
         try {
-            writer = new FileWriter(file);
-            writer.write(content);
+            writeFileAtomic(file, writer -> writer.write(content));
         } catch (IOException e) {
             log.error(e.getMessage());
-        } finally {
+        }
+    }
+
+    /**
+     * 原子地替换文件的内容<br>
+     * 内容先通过带缓冲的{@code UTF-8}编码的{@link BufferedWriter}写入同一目录下的临时文件，
+     * 写完之后强制写入磁盘，再原子地重命名为目标文件(文件系统不支持时直接替换)，最后把目录也强制写入磁盘。
+     * 其他进程读取这个文件时只会看到完整的旧内容或者完整的新内容，写入过程中程序崩溃或者断电也不会留下写了一半的文件；
+     * 写入失败时删除临时文件，原来的文件保持不变。目标是符号链接时替换链接指向的文件，链接本身保持不变；
+     * 替换已有的文件时保留原来的访问权限，但是不保留所有者和所属的组，新文件属于当前进程的用户
+     *
+     * @param file
+     *            目标文件，不存在时会新建
+     * @param content
+     *            写入内容的回调，不需要关闭{@link BufferedWriter}
+     * @throws IOException
+     *             写入出错
+     */
+    public static final void writeFileAtomic(File file, ContentWriter content) throws IOException {
+        Path target = file.toPath().toAbsolutePath();
+        // write through symbolic links like a plain FileWriter, instead of replacing the link,
+        // a dangling link is followed as well so that its target gets created
+        for (int hops = 0; Files.isSymbolicLink(target); hops++) {
+            if (hops >= MAX_SYMLINK_HOPS) {
+                throw new IOException("too many levels of symbolic links: " + file);
+            }
+            target = target.getParent().resolve(Files.readSymbolicLink(target));
+        }
+        if (Files.exists(target)) {
+            target = target.toRealPath();
+        }
+        Path dir = target.getParent();
+        Path tmp = dir.resolve("." + target.getFileName() + "." + System.nanoTime() + ".tmp");
+        boolean moved = false;
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE)) {
+                BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                        Channels.newOutputStream(channel), StandardCharsets.UTF_8), WRITE_BUFFER);
+                content.write(writer);
+                writer.flush();
+                channel.force(true);
+            }
+            copyPermissions(target, tmp);
             try {
-                if (writer != null) {
-                    writer.close();
-                }
-            } catch (IOException e) {
-                log.error(e.getMessage());
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
             }
+            moved = true;
+            forceDirectory(dir);
+        } finally {
+            if (!moved) {
+                Files.deleteIfExists(tmp);
+            }
+        }
+    }
+
+    /**
+     * 新文件使用原来文件的访问权限，不支持POSIX权限的系统忽略
+     */
+    private static void copyPermissions(Path from, Path to) throws IOException {
+        try {
+            Files.setPosixFilePermissions(to, Files.getPosixFilePermissions(from));
+        } catch (NoSuchFileException | UnsupportedOperationException e) {
+            // a new file, or no POSIX permissions here
+        }
+    }
+
+    /**
+     * 让目录中的重命名也写入磁盘，有些系统(例如Windows)不能打开目录，忽略
+     */
+    private static void forceDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.debug("can not sync directory {}: {}", dir, e.toString());
         }
     }
 
+    /**
+     * 向文件中写入内容的回调
+     *
+     * @author 阿信sxq
+     *
+     * @see FileIO#writeFileAtomic(File, ContentWriter)
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+
+        /**
+         * 写入内容
+         *
+         * @param writer
+         *            带缓冲的输出，{@linkplain BufferedWriter#newLine()}写入系统的行分隔符
+         * @throws IOException
+         *             写入出错
+         */
+        void write(BufferedWriter writer) throws IOException;
+
+    }
+
     /**
      * 读取并处理文本文件中的内容<br>
      * 将文件中的内容按照一行一行的方式读取，然后将每一行按照{@code regex}